@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Compara throughput e p99 dos endpoints com threads de plataforma e com virtual threads.
+#
+# Uso: scripts/load-compare.sh [perfis-extras]
+#   ex.: scripts/load-compare.sh perf      (usa o banco H2 do perfil perf)
+#
+# Requer: jar gerado (./mvnw package -DskipTests) e a ferramenta de carga "hey"
+# (https://github.com/rakyll/hey). Ajuste com as variáveis abaixo.
+set -euo pipefail
+
+EXTRA_PROFILES="${1:-}"
+PORT="${PORT:-8080}"
+DURATION="${DURATION:-30s}"
+CONCURRENCY="${CONCURRENCY:-400}"
+JAR="${JAR:-$(ls target/*.jar | grep -v plain | head -n 1)}"
+BASE="http://localhost:${PORT}/workshop"
+ENDPOINTS=(
+  "/products?limit=50"
+  "/categories?limit=50"
+  "/users?limit=50"
+  "/orders?limit=50"
+  "/orders/1"
+  "/payments?limit=50"
+)
+
+join_profiles() {
+  local mode="$1"
+  local list="${EXTRA_PROFILES}"
+  if [[ "${mode}" == "virtual" ]]; then
+    list="${list:+${list},}virtual-threads"
+  fi
+  echo "${list}"
+}
+
+wait_for_app() {
+  for _ in $(seq 1 120); do
+    if curl -fs -o /dev/null "${BASE}/products?limit=1"; then
+      return 0
+    fi
+    sleep 0.5
+  done
+  echo "aplicação não respondeu a tempo" >&2
+  return 1
+}
+
+run_mode() {
+  local mode="$1"
+  local profiles
+  profiles="$(join_profiles "${mode}")"
+  java -Djdk.tracePinnedThreads=short -jar "${JAR}" --server.port="${PORT}" \
+    ${profiles:+--spring.profiles.active=${profiles}} > "target/load-${mode}.log" 2>&1 &
+  local pid=$!
+  trap 'kill ${pid} 2>/dev/null || true' EXIT
+  wait_for_app
+
+  for endpoint in "${ENDPOINTS[@]}"; do
+    # aquecimento (JIT, caches, pool de conexões)
+    hey -z 5s -c "${CONCURRENCY}" "${BASE}${endpoint}" > /dev/null
+    local out
+    out="$(hey -z "${DURATION}" -c "${CONCURRENCY}" "${BASE}${endpoint}")"
+    local rps p99
+    rps="$(echo "${out}" | awk '/Requests\/sec/ {print $2}')"
+    p99="$(echo "${out}" | awk '/99% in/ {print $3}')"
+    printf "%-10s %-28s %12s req/s   p99 %8s s\n" "${mode}" "${endpoint}" "${rps}" "${p99}"
+  done
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+  trap - EXIT
+  local pinned
+  pinned="$(grep -c "VirtualThread.*pinned\|<== monitors" "target/load-${mode}.log" || true)"
+  echo "${mode}: ${pinned} ocorrências de pinning registradas em target/load-${mode}.log"
+}
+
+mkdir -p target
+run_mode platform
+run_mode virtual
@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Sobe a aplicação no modo de inicialização rápida: jar extraído, código gerado pelo Spring AOT e
+# arquivo CDS gravado na execução de treino do perfil Maven fast-startup.
+#
+# Uso: scripts/run-fast-startup.sh [argumentos da aplicação]
+#   ex.: scripts/run-fast-startup.sh --server.port=8081
+#
+# Requer: ./mvnw -Pfast-startup package -DskipTests
+# Os perfis Spring (@Profile) ficam fixados no processamento AOT; os demais valores de configuração
+# (datasource, portas, workshop.*) continuam sendo lidos na subida.
+set -euo pipefail
+
+DIR="${FAST_STARTUP_DIR:-target/fast-startup}"
+JAR="$(ls "${DIR}"/*.jar 2>/dev/null | head -n 1 || true)"
+
+if [[ -z "${JAR}" || ! -f "${DIR}/application.jsa" ]]; then
+  echo "jar extraído ou ${DIR}/application.jsa ausente; rode ./mvnw -Pfast-startup package -DskipTests" >&2
+  exit 1
+fi
+
+# O CDS só é usado se o classpath for o mesmo da execução de treino, que roda de dentro de ${DIR} com
+# -jar <nome do jar>: a subida entra no mesmo diretório e passa o jar pelo nome. Caminhos relativos nos
+# argumentos passam a ser resolvidos a partir de ${DIR}.
+# -Xshare:auto (padrão) cai para o carregamento normal se o arquivo CDS não bater com a JVM ou o classpath
+cd "${DIR}"
+exec java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true ${JAVA_OPTS:-} \
+  -jar "$(basename "${JAR}")" "$@"
@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Mede tempo até a primeira requisição respondida e RSS logo após ela, com o jar comum e com o modo
+# fast-startup (AOT + CDS). Cada modo sobe RUNS vezes; o resultado é a mediana.
+#
+# Uso: scripts/startup-benchmark.sh
+#
+# Requer: ./mvnw -Pfast-startup package -DskipTests (gera os dois artefatos). Por padrão os dois modos usam
+# um H2 em memória vazio, para medir só a aplicação; DB_ARGS troca o banco (ex.: o SQL Server local).
+set -euo pipefail
+
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8080}"
+JAR="${JAR:-$(ls target/*.jar | grep -v plain | head -n 1)}"
+URL="http://localhost:${PORT}/workshop/products?limit=1"
+DB_ARGS="${DB_ARGS:---spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1 --spring.datasource.username=sa --spring.datasource.password=}"
+
+now_ms() {
+  date +%s%3N
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# Sobe o processo, espera o primeiro 200 e imprime "<ms até a primeira resposta> <RSS em KB>"
+measure() {
+  local mode="$1"
+  local start pid
+  start="$(now_ms)"
+  if [[ "${mode}" == "fast-startup" ]]; then
+    scripts/run-fast-startup.sh --server.port="${PORT}" ${DB_ARGS} > "target/startup-${mode}.log" 2>&1 &
+  else
+    java -jar "${JAR}" --server.port="${PORT}" ${DB_ARGS} > "target/startup-${mode}.log" 2>&1 &
+  fi
+  pid=$!
+  trap 'kill ${pid} 2>/dev/null || true' EXIT
+
+  local elapsed=""
+  for _ in $(seq 1 1200); do
+    if curl -fs -o /dev/null "${URL}"; then
+      elapsed=$(( $(now_ms) - start ))
+      break
+    fi
+    sleep 0.05
+  done
+  if [[ -z "${elapsed}" ]]; then
+    echo "${mode}: aplicação não respondeu a tempo (ver target/startup-${mode}.log)" >&2
+    exit 1
+  fi
+  local rss
+  rss="$(ps -o rss= -p "${pid}" | tr -d ' ')"
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+  trap - EXIT
+  echo "${elapsed} ${rss}"
+}
+
+run_mode() {
+  local mode="$1"
+  local times=() rsss=()
+  for _ in $(seq 1 "${RUNS}"); do
+    local result
+    result="$(measure "${mode}")"
+    times+=("${result% *}")
+    rsss+=("${result#* }")
+  done
+  local time rss
+  time="$(printf "%s\n" "${times[@]}" | median)"
+  rss="$(printf "%s\n" "${rsss[@]}" | median)"
+  printf "%-14s primeira resposta %6s ms   RSS %8s MB\n" "${mode}" "${time}" "$(( rss / 1024 ))"
+}
+
+mkdir -p target
+run_mode jar
+run_mode fast-startup
@@ -0,0 +1,61 @@
+package com.lorenzozagallo.jpa.benchmarks;
+
+import com.lorenzozagallo.jpa.models.Category;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.OrderItem;
+import com.lorenzozagallo.jpa.models.Payment;
+import com.lorenzozagallo.jpa.models.Product;
+import com.lorenzozagallo.jpa.models.User;
+import com.lorenzozagallo.jpa.models.enums.OrderStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Grafo de entidades montado em memória (sem banco) para os benchmarks
+final class DomainFixtures {
+
+    private DomainFixtures() {
+    }
+
+    static List<Category> categories(int count) {
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            categories.add(new Category((long) i, "Categoria " + i));
+        }
+        return categories;
+    }
+
+    static List<Product> products(int count, List<Category> categories) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product((long) i, "Produto " + i, "Descrição do produto " + i,
+                    10.0 + (i % 500), "https://example.com/img/" + i + ".jpg");
+            product.getCategories().add(categories.get(i % categories.size()));
+            product.getCategories().add(categories.get((i * 7) % categories.size()));
+            products.add(product);
+        }
+        return products;
+    }
+
+    // Pedido com itemCount itens, cada um com um produto diferente
+    static Order order(long id, int itemCount, List<Product> products) {
+        User client = new User(1L, "Maria Brown", "maria@gmail.com", "988888888", "123456");
+        Order order = new Order(id, Instant.parse("2024-11-20T19:53:07Z"), OrderStatus.PAID, client);
+        for (int i = 0; i < itemCount; i++) {
+            Product product = products.get(i % products.size());
+            OrderItem item = new OrderItem(order, product, 1 + (i % 5), product.getPrice());
+            order.getItems().add(item);
+            product.getItems().add(item);
+        }
+        order.recalculateTotals();
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setMoment(Date.from(Instant.parse("2024-11-20T21:53:07Z")));
+        payment.setOrder(order);
+        payment.setAmount(order.getTotal());
+        order.setPayment(payment);
+        return order;
+    }
+}
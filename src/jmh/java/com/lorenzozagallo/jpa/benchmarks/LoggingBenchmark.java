@@ -0,0 +1,97 @@
+package com.lorenzozagallo.jpa.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+// Custo, na thread da requisição, de uma linha de log dos services: antes (java.util.logging com
+// concatenação e escrita síncrona) e depois (SLF4J parametrizado, nível desligado ou AsyncAppender).
+// A saída vai para um stream nulo: mede-se formatação e enfileiramento, não I/O de terminal.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private Logger julLogger;
+    private StreamHandler julHandler;
+    private LoggerContext logbackContext;
+    private org.slf4j.Logger slf4jLogger;
+    private long id = 42L;
+
+    @Setup
+    public void setup() {
+        julHandler = new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter());
+        julLogger = Logger.getLogger("bench.jul");
+        julLogger.setUseParentHandlers(false);
+        julLogger.addHandler(julHandler);
+
+        logbackContext = new LoggerContext();
+        logbackContext.start();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(logbackContext);
+        encoder.setPattern("%d %level [%thread] %logger - %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(logbackContext);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+        // Mesma configuração do logback-spring.xml
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(logbackContext);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(20);
+        async.setNeverBlock(true);
+        async.addAppender(sink);
+        async.start();
+        ch.qos.logback.classic.Logger logger = logbackContext.getLogger("bench.slf4j");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(async);
+        slf4jLogger = logger;
+    }
+
+    @TearDown
+    public void tearDown() {
+        julHandler.close();
+        logbackContext.stop();
+    }
+
+    @Benchmark
+    public void julConcatenated() {
+        julLogger.info("Buscando produto com ID: " + id);
+    }
+
+    @Benchmark
+    public void slf4jParameterizedDisabled() {
+        slf4jLogger.debug("Buscando produto com ID: {}", id);
+    }
+
+    @Benchmark
+    public void slf4jParameterizedAsync() {
+        slf4jLogger.info("Buscando produto com ID: {}", id);
+    }
+}
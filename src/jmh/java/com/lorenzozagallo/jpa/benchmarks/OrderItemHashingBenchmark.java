@@ -0,0 +1,79 @@
+package com.lorenzozagallo.jpa.benchmarks;
+
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.OrderItem;
+import com.lorenzozagallo.jpa.models.pk.OrderItemPK;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// hashCode/equals de OrderItemPK e o custo de montar/consultar o HashSet<OrderItem> de Order.items
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderItemHashingBenchmark {
+
+    @Param({ "100", "10000" })
+    private int size;
+
+    private List<OrderItem> items;
+    private List<OrderItemPK> keys;
+    private List<OrderItemPK> probes;
+    private Set<OrderItemPK> keySet;
+
+    @Setup
+    public void setup() {
+        Order order = DomainFixtures.order(42L, size, DomainFixtures.products(size, DomainFixtures.categories(20)));
+        items = new ArrayList<>(order.getItems());
+        keys = new ArrayList<>(size);
+        probes = new ArrayList<>(size);
+        for (OrderItem item : items) {
+            keys.add(item.getId());
+            // chave igual, instância diferente: força o caminho completo de equals
+            probes.add(new OrderItemPK(item.getId().getOrderId(), item.getId().getProductId()));
+        }
+        keySet = new HashSet<>(keys);
+    }
+
+    @Benchmark
+    public Set<OrderItem> buildItemSet() {
+        return new HashSet<>(items);
+    }
+
+    @Benchmark
+    public Set<OrderItemPK> buildKeySet() {
+        return new HashSet<>(keys);
+    }
+
+    @Benchmark
+    public void lookupKeys(Blackhole blackhole) {
+        for (OrderItemPK probe : probes) {
+            blackhole.consume(keySet.contains(probe));
+        }
+    }
+
+    @Benchmark
+    public void hashKeys(Blackhole blackhole) {
+        for (OrderItemPK key : keys) {
+            blackhole.consume(key.hashCode());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.lorenzozagallo.jpa.benchmarks;
+
+import com.lorenzozagallo.jpa.models.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de somar os itens do pedido (computeTotal) contra ler o total persistido (getTotal)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderTotalBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    private int itemCount;
+
+    private Order order;
+
+    @Setup
+    public void setup() {
+        order = DomainFixtures.order(1L, itemCount, DomainFixtures.products(itemCount, DomainFixtures.categories(20)));
+    }
+
+    @Benchmark
+    public double computeTotal() {
+        return order.computeTotal();
+    }
+
+    @Benchmark
+    public double persistedTotal() {
+        return order.getTotal();
+    }
+}
@@ -0,0 +1,51 @@
+package com.lorenzozagallo.jpa.benchmarks;
+
+import com.lorenzozagallo.jpa.models.Category;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Product.getOrders() monta um HashSet<Order> a cada chamada percorrendo todos os itens do produto
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductOrdersBenchmark {
+
+    @Param({ "10", "1000", "50000" })
+    private int orderCount;
+
+    private Product product;
+
+    @Setup
+    public void setup() {
+        List<Category> categories = DomainFixtures.categories(5);
+        List<Product> products = DomainFixtures.products(1, categories);
+        product = products.get(0);
+        // cada pedido tem um item do mesmo produto, que o registra em product.getItems()
+        for (int i = 1; i <= orderCount; i++) {
+            DomainFixtures.order(i, 1, products);
+        }
+    }
+
+    @Benchmark
+    public Set<Order> getOrders() {
+        return product.getOrders();
+    }
+}
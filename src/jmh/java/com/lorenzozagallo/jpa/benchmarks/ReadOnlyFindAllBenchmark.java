@@ -0,0 +1,95 @@
+package com.lorenzozagallo.jpa.benchmarks;
+
+import com.lorenzozagallo.jpa.JpaApplication;
+import com.lorenzozagallo.jpa.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// findAll grande de usuários num contexto Spring completo sobre H2 em memória. Na transação de escrita o
+// Hibernate guarda uma cópia do estado de cada entidade carregada e a compara no flush do commit; na read-only
+// (e com o hint read-only da consulta paginada) essa cópia não existe. Rodar com -prof gc (padrão do perfil
+// jmh): gc.alloc.rate.norm dá os bytes alocados por operação em cada modo.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyFindAllBenchmark {
+
+    @Param({ "1000", "50000" })
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(JpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:readonly-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.cache.type=none",
+                        "workshop.orders.totals-repair.cron=-",
+                        "workshop.analytics.rollup-rebuild.cron=-",
+                        "logging.level.root=WARN")
+                .run();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.batchUpdate("INSERT INTO users (name, email, phone, password) VALUES (?, ?, ?, ?)",
+                IntStream.rangeClosed(1, rows)
+                        .mapToObj(i -> new Object[] { "Usuário " + i, "usuario" + i + "@example.com",
+                                "9" + (10000000 + i), "senha" + i })
+                        .toList());
+        userRepository = context.getBean(UserRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int readWriteTransaction() {
+        return readWrite.execute(status -> userRepository.findAll().size());
+    }
+
+    @Benchmark
+    public int readOnlyTransaction() {
+        return readOnly.execute(status -> userRepository.findAll().size());
+    }
+
+    // Mesmo numa transação de escrita, o hint da consulta paginada já carrega as entidades sem cópia
+    @Benchmark
+    public int readWriteTransactionWithReadOnlyHint() {
+        return readWrite.execute(status ->
+                userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(rows)).size());
+    }
+}
@@ -0,0 +1,91 @@
+package com.lorenzozagallo.jpa.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.lorenzozagallo.jpa.controllers.exceptions.StandardError;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização Jackson de um Order completo (cliente, pagamento, itens -> produto -> categorias) e de um Product,
+// com o acesso a propriedades por reflexão (padrão do Jackson) e pelo módulo Blackbird registrado na aplicação
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "1", "20", "200" })
+    private int itemCount;
+
+    @Param({ "reflection", "blackbird" })
+    private String access;
+
+    private ObjectWriter orderWriter;
+    private ObjectWriter productWriter;
+    private ObjectWriter errorWriter;
+    private Order order;
+    private Product product;
+    private StandardError error;
+
+    @Setup
+    public void setup() {
+        // Mesmos módulos e configurações relevantes do ObjectMapper do Spring Boot (que não usa o ServiceLoader,
+        // então o Blackbird só entra quando registrado explicitamente, como no JacksonConfig)
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new Jdk8Module())
+                .addModule(new JavaTimeModule())
+                .addModule(new ParameterNamesModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (access.equals("blackbird")) {
+            builder.addModule(new BlackbirdModule());
+        }
+        ObjectMapper mapper = builder.build();
+        orderWriter = mapper.writerFor(Order.class);
+        productWriter = mapper.writerFor(Product.class);
+        errorWriter = mapper.writerFor(StandardError.class);
+        List<Product> products = DomainFixtures.products(itemCount, DomainFixtures.categories(20));
+        order = DomainFixtures.order(1L, itemCount, products);
+        product = products.get(0);
+        error = new StandardError(Instant.parse("2024-11-20T19:53:07.123Z"), 404, "Recurso não encontrado",
+                "Pedido não encontrado para o ID: 1", "/workshop/orders/1");
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return orderWriter.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return productWriter.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeError() throws JsonProcessingException {
+        return errorWriter.writeValueAsBytes(error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.lorenzozagallo.jpa.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Cache local (Caffeine) do catálogo. Tamanho, TTL e estatísticas ficam em spring.cache.caffeine.spec;
+// os services de Product e Category invalidam as entradas a cada escrita.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "productPages";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_PAGES = "categoryPages";
+}
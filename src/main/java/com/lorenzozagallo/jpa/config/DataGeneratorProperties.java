@@ -0,0 +1,19 @@
+package com.lorenzozagallo.jpa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// skew: expoente da distribuição de produtos e clientes; 1.0 é uniforme, valores maiores
+// concentram os pedidos em poucos produtos "quentes" e poucos compradores pesados.
+@ConfigurationProperties(prefix = "workshop.datagen")
+public record DataGeneratorProperties(@DefaultValue("true") boolean enabled,
+        @DefaultValue("42") long seed,
+        @DefaultValue("200000") int users,
+        @DefaultValue("50") int categories,
+        @DefaultValue("20000") int products,
+        @DefaultValue("1000000") int orders,
+        @DefaultValue("5") int maxItemsPerOrder,
+        @DefaultValue("0.6") double paidRatio,
+        @DefaultValue("3.0") double skew,
+        @DefaultValue("5000") int batchSize) {
+}
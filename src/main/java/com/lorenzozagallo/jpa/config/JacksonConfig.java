@@ -0,0 +1,18 @@
+package com.lorenzozagallo.jpa.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// O Spring Boot registra no ObjectMapper todo bean Module. O Blackbird troca a reflexão nos getters/setters
+// por lambdas geradas (LambdaMetafactory) na primeira serialização de cada classe; vale para as respostas
+// HTTP e para a exportação NDJSON, que usam o mesmo ObjectMapper.
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
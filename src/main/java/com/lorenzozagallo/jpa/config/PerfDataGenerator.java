@@ -0,0 +1,216 @@
+package com.lorenzozagallo.jpa.config;
+
+import com.lorenzozagallo.jpa.models.enums.OrderStatus;
+import com.lorenzozagallo.jpa.services.SalesRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// Massa de dados sintética para o perfil "perf" (H2 em memória). Grava direto via JDBC em batch,
+// com IDs explícitos, e depois reposiciona as sequences/identities para os inserts da aplicação.
+// Substitui o antigo TestConfig comentado, que criava só 5 produtos e 3 pedidos.
+@Configuration
+@Profile("perf")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class PerfDataGenerator implements CommandLineRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerfDataGenerator.class);
+
+    // Mesmo allocationSize do @SequenceGenerator de Order
+    private static final int ORDER_SEQUENCE_ALLOCATION = 50;
+    private static final Instant HISTORY_END = Instant.parse("2026-01-01T00:00:00Z");
+    private static final int HISTORY_DAYS = 730;
+    private static final long HISTORY_SECONDS = Duration.ofDays(HISTORY_DAYS).toSeconds();
+    private static final OrderStatus[] UNPAID_STATUSES = { OrderStatus.WAITING_PAYMENT, OrderStatus.CANCELED };
+    private static final OrderStatus[] PAID_STATUSES = { OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataGeneratorProperties properties;
+    private final SalesRollupService salesRollupService;
+
+    public PerfDataGenerator(JdbcTemplate jdbcTemplate, DataGeneratorProperties properties,
+            SalesRollupService salesRollupService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.salesRollupService = salesRollupService;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!properties.enabled()) {
+            return;
+        }
+        String database = jdbcTemplate.execute((Connection c) -> c.getMetaData().getDatabaseProductName());
+        if (database == null || !database.contains("H2")) {
+            LOGGER.warn("Gerador de dados ignorado: só roda em H2 (banco atual: {})", database);
+            return;
+        }
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(properties.seed());
+        generateUsers();
+        generateCategories();
+        generateProducts(random);
+        generateOrders(random);
+        resetIdentities();
+        // o histórico entra direto via JDBC; o consolidado diário é montado de uma vez a partir dele
+        LocalDate historyEnd = LocalDate.ofInstant(HISTORY_END, ZoneOffset.UTC);
+        salesRollupService.rebuild(historyEnd.minusDays(HISTORY_DAYS + 1L), historyEnd.plusDays(2));
+        LOGGER.info("Massa de dados gerada em {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void generateUsers() {
+        Batch batch = new Batch("INSERT INTO users (id, name, email, phone, password) VALUES (?, ?, ?, ?, ?)");
+        for (long id = 1; id <= properties.users(); id++) {
+            batch.add(id, "Cliente " + id, "cliente" + id + "@example.com", String.format("9%08d", id), "123456");
+            batch.flushIfFull();
+        }
+        batch.flush();
+        LOGGER.info("{} usuários gerados", properties.users());
+    }
+
+    private void generateCategories() {
+        Batch batch = new Batch("INSERT INTO categories (id, name, version, last_modified) VALUES (?, ?, 0, ?)");
+        Timestamp lastModified = Timestamp.from(HISTORY_END);
+        for (long id = 1; id <= properties.categories(); id++) {
+            batch.add(id, "Categoria " + id, lastModified);
+        }
+        batch.flush();
+    }
+
+    private void generateProducts(SplittableRandom random) {
+        Batch products = new Batch("INSERT INTO products (id, name, description, price, img_url, version, last_modified) "
+                + "VALUES (?, ?, ?, ?, ?, 0, ?)");
+        Timestamp lastModified = Timestamp.from(HISTORY_END);
+        Batch links = new Batch("INSERT INTO product_category (product_id, category_id) VALUES (?, ?)");
+        for (long id = 1; id <= properties.products(); id++) {
+            double price = Math.round((5 + random.nextDouble() * 4995) * 100) / 100.0;
+            products.add(id, "Produto " + id, "Descrição do produto " + id, price, "https://example.com/img/" + id + ".jpg",
+                    lastModified);
+            // 1 a 3 categorias por produto, com as primeiras categorias mais populosas
+            int categoryCount = 1 + random.nextInt(3);
+            Set<Long> categoryIds = new HashSet<>();
+            for (int i = 0; i < categoryCount; i++) {
+                categoryIds.add(skewed(random, properties.categories()));
+            }
+            for (Long categoryId : categoryIds) {
+                links.add(id, categoryId);
+            }
+            // produtos antes dos vínculos, por causa da FK
+            if (products.isFull()) {
+                products.flush();
+                links.flush();
+            }
+        }
+        products.flush();
+        links.flush();
+        LOGGER.info("{} produtos gerados", properties.products());
+    }
+
+    private void generateOrders(SplittableRandom random) {
+        Batch orders = new Batch("INSERT INTO orders (id, moment, order_status, client_id, total, item_count, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0)");
+        Batch items = new Batch("INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (?, ?, ?, ?)");
+        Batch payments = new Batch("INSERT INTO payments (order_id, moment, amount) VALUES (?, ?, ?)");
+        double[] prices = jdbcTemplate.queryForList("SELECT price FROM products ORDER BY id", Double.class)
+                .stream().mapToDouble(Double::doubleValue).toArray();
+        Set<Long> productIds = new HashSet<>();
+        for (long id = 1; id <= properties.orders(); id++) {
+            Instant moment = HISTORY_END.minusSeconds(random.nextLong(HISTORY_SECONDS)).truncatedTo(ChronoUnit.SECONDS);
+            boolean paid = random.nextDouble() < properties.paidRatio();
+            OrderStatus status = paid
+                    ? PAID_STATUSES[random.nextInt(PAID_STATUSES.length)]
+                    : UNPAID_STATUSES[random.nextInt(UNPAID_STATUSES.length)];
+
+            productIds.clear();
+            int itemCount = 1 + random.nextInt(properties.maxItemsPerOrder());
+            while (productIds.size() < itemCount) {
+                productIds.add(skewed(random, properties.products()));
+            }
+            double total = 0;
+            for (Long productId : productIds) {
+                int quantity = 1 + random.nextInt(4);
+                double price = prices[(int) (productId - 1)];
+                total += price * quantity;
+                items.add(id, productId, quantity, price);
+            }
+            orders.add(id, Timestamp.from(moment), status.getValue(), skewed(random, properties.users()),
+                    total, productIds.size());
+            if (paid) {
+                payments.add(id, Timestamp.from(moment.plusSeconds(60 + random.nextInt(7200))), total);
+            }
+            // pedidos primeiro, por causa das FKs de itens e pagamentos
+            if (orders.isFull()) {
+                orders.flush();
+                items.flush();
+                payments.flush();
+            }
+        }
+        orders.flush();
+        items.flush();
+        payments.flush();
+        LOGGER.info("{} pedidos gerados", properties.orders());
+    }
+
+    // Índice 1..n com distribuição potência: skew > 1 concentra a escolha nos primeiros IDs
+    private long skewed(SplittableRandom random, int n) {
+        return 1 + Math.min(n - 1, (long) (n * Math.pow(random.nextDouble(), properties.skew())));
+    }
+
+    private void resetIdentities() {
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (properties.users() + 1));
+        jdbcTemplate.execute("ALTER TABLE categories ALTER COLUMN id RESTART WITH " + (properties.categories() + 1));
+        jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + (properties.products() + 1));
+        // O otimizador pooled do Hibernate trata o valor lido como topo do bloco: pula um bloco inteiro
+        jdbcTemplate.execute("ALTER SEQUENCE orders_seq RESTART WITH "
+                + (properties.orders() + ORDER_SEQUENCE_ALLOCATION + 1));
+    }
+
+    private final class Batch {
+
+        private final String sql;
+        private final List<Object[]> rows;
+
+        private Batch(String sql) {
+            this.sql = sql;
+            this.rows = new ArrayList<>(properties.batchSize());
+        }
+
+        private void add(Object... row) {
+            rows.add(row);
+        }
+
+        private boolean isFull() {
+            return rows.size() >= properties.batchSize();
+        }
+
+        private void flushIfFull() {
+            if (isFull()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.lorenzozagallo.jpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Leituras em réplica: só entra quando workshop.datasource.replica.jdbc-url está configurada; sem ela o
+// DataSource continua sendo o do Spring Boot (spring.datasource.*). O primário mantém spring.datasource.* e
+// spring.datasource.hikari.*; a réplica tem pool próprio em workshop.datasource.replica.* (propriedades Hikari).
+@Configuration
+@ConditionalOnProperty(prefix = "workshop.datasource.replica", name = "jdbc-url")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("workshop.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(@Qualifier("replicaDataSource") DataSource replica,
+            @Value("${workshop.datasource.replica.validation-timeout-seconds:2}") int validationTimeoutSeconds) {
+        return new ReplicaHealthMonitor(replica, validationTimeoutSeconds);
+    }
+
+    // DataSource usado por JPA, Flyway e JdbcTemplate; migrações rodam fora de transação read-only (primário)
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica, ReplicaHealthMonitor replicaHealthMonitor) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, replicaHealthMonitor));
+    }
+
+    // Por padrão a sessão segura a conexão até fechar (com open-in-view, a requisição inteira), e a primeira
+    // transação decidiria a rota das seguintes. Devolvendo a conexão ao fim de cada transação, cada uma é roteada.
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransactionCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
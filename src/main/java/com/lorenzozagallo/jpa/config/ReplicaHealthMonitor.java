@@ -0,0 +1,53 @@
+package com.lorenzozagallo.jpa.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Disponibilidade da réplica de leitura: sondada periodicamente e derrubada na hora em que uma conexão
+// falha. Enquanto estiver fora, as transações read-only vão para o primário; a sonda seguinte a traz de volta.
+public class ReplicaHealthMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final DataSource replica;
+    private final int validationTimeoutSeconds;
+    private volatile boolean up = true;
+
+    public ReplicaHealthMonitor(DataSource replica, int validationTimeoutSeconds) {
+        this.replica = replica;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public boolean isUp() {
+        return up;
+    }
+
+    public void markDown(Exception cause) {
+        if (up) {
+            up = false;
+            LOGGER.warn("Réplica de leitura indisponível; leituras desviadas para o primário: {}", cause.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${workshop.datasource.replica.health-check-interval:5s}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(validationTimeoutSeconds)) {
+                markDown(new SQLException("conexão inválida"));
+                return;
+            }
+        } catch (SQLException e) {
+            markDown(e);
+            return;
+        }
+        if (!up) {
+            up = true;
+            LOGGER.info("Réplica de leitura disponível novamente");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.lorenzozagallo.jpa.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Amostragem por logger no logback-spring.xml: dos eventos até maxLevel cujo logger começa com
+// loggerPrefix, deixa passar 1 a cada "rate". WARN/ERROR e os demais loggers não são afetados.
+// Roda antes da checagem de nível e da criação do evento, então precisa ser barato: sem contador
+// compartilhado entre threads, só um sorteio local.
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "";
+    private Level maxLevel = Level.INFO;
+    private int rate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate <= 1 || level == null || level.toInt() > maxLevel.toInt()
+                || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+}
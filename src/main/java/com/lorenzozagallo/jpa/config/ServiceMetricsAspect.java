@@ -0,0 +1,65 @@
+package com.lorenzozagallo.jpa.config;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Timer "workshop.service" para todo método público de *Service, com tags class, method e outcome.
+// Os Timers são resolvidos uma única vez por método e guardados aqui: no caminho quente só há a
+// busca no mapa e a leitura do relógio, sem montar Tags nem consultar o registry a cada chamada
+// (que é o que o TimedAspect do Micrometer faz).
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "workshop.service";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<Method, Timers> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.lorenzozagallo.jpa.services.*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timers methodTimers = timers.computeIfAbsent(method, this::register);
+        Clock clock = registry.config().clock();
+        long start = clock.monotonicTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success().record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.error().record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timers register(Method method) {
+        return new Timers(timer(method, "success"), timer(method, "error"));
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Tempo de execução dos métodos de serviço")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record Timers(Timer success, Timer error) {
+    }
+}
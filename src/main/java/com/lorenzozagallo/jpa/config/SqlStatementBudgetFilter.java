@@ -0,0 +1,44 @@
+package com.lorenzozagallo.jpa.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Abre um escopo do SqlStatementCounter por requisição e alerta quando o endpoint passa do orçamento.
+// O total fica no atributo STATEMENT_COUNT da requisição, lido pelos testes de integração.
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT = SqlStatementBudgetFilter.class.getName() + ".count";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    private final int budget;
+
+    public SqlStatementBudgetFilter(int budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.begin();
+        SqlStatementCounter.Scope scope;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope = SqlStatementCounter.end();
+            request.setAttribute(STATEMENT_COUNT, scope.count());
+        }
+        if (scope.count() > budget) {
+            LOGGER.warn("{} {} executou {} statements SQL (orçamento: {}). Mais repetido: {}",
+                    request.getMethod(), request.getRequestURI(), scope.count(), budget, scope.topPattern());
+        }
+    }
+}
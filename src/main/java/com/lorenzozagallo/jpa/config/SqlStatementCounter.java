@@ -0,0 +1,65 @@
+package com.lorenzozagallo.jpa.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Conta os statements SQL que o Hibernate prepara na thread atual, entre begin() e end().
+// Fora de um escopo aberto (jobs, gerador de dados) o custo é só a leitura do ThreadLocal.
+// O SQL é guardado como veio do Hibernate; a normalização só acontece ao montar o alerta.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count++;
+            scope.statements.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    public static void begin() {
+        if (CURRENT.get() == null) {
+            CURRENT.set(new Scope());
+        }
+    }
+
+    public static Scope end() {
+        Scope scope = CURRENT.get();
+        CURRENT.remove();
+        return scope != null ? scope : new Scope();
+    }
+
+    public static final class Scope {
+
+        private int count;
+        private final Map<String, Integer> statements = new HashMap<>();
+
+        public int count() {
+            return count;
+        }
+
+        // Statement mais repetido, com listas IN (?, ?, ...) e literais numéricos colapsados
+        public String topPattern() {
+            Map<String, Integer> patterns = new HashMap<>();
+            statements.forEach((sql, n) -> patterns.merge(normalize(sql), n, Integer::sum));
+            return patterns.entrySet().stream()
+                    .max(Comparator.comparingInt(Map.Entry::getValue))
+                    .map(e -> e.getValue() + "x " + e.getKey())
+                    .orElse("-");
+        }
+
+        private static String normalize(String sql) {
+            String pattern = IN_LIST.matcher(sql).replaceAll("(?...)");
+            return NUMBER.matcher(pattern).replaceAll("?");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lorenzozagallo.jpa.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// Instant como "yyyy-MM-dd'T'HH:mm:ss'Z'" em UTC, sem frações de segundo. Um único formatter estático
+// (imutável e thread-safe) atende todas as chamadas, sem a resolução de padrão e fuso do @JsonFormat.
+public class UtcInstantSerializer extends StdSerializer<Instant> {
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZone(ZoneOffset.UTC);
+
+    public UtcInstantSerializer() {
+        super(Instant.class);
+    }
+
+    @Override
+    public void serialize(Instant value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeString(FORMATTER.format(value));
+    }
+}
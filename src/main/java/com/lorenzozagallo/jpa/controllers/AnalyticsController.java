@@ -0,0 +1,56 @@
+package com.lorenzozagallo.jpa.controllers;
+
+import com.lorenzozagallo.jpa.dtos.CategorySalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.DailySalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.ProductSalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.StatusSalesRecordDto;
+import com.lorenzozagallo.jpa.services.AnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/workshop/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailySalesRecordDto>> daily(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok().body(analyticsService.findDaily(from, to));
+    }
+
+    @GetMapping("/by-status")
+    public ResponseEntity<List<StatusSalesRecordDto>> byStatus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok().body(analyticsService.findByStatus(from, to));
+    }
+
+    @GetMapping("/by-product")
+    public ResponseEntity<List<ProductSalesRecordDto>> byProduct(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok().body(analyticsService.findByProduct(from, to, limit));
+    }
+
+    @GetMapping("/by-category")
+    public ResponseEntity<List<CategorySalesRecordDto>> byCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok().body(analyticsService.findByCategory(from, to));
+    }
+}
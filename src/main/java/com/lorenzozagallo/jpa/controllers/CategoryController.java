@@ -1,6 +1,10 @@
 package com.lorenzozagallo.jpa.controllers;
 
 import com.lorenzozagallo.jpa.dtos.CategoryRecordDto;
+import com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto;
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
+import com.lorenzozagallo.jpa.dtos.EntityVersionRecordDto;
+import com.lorenzozagallo.jpa.dtos.ProductSummaryRecordDto;
 import com.lorenzozagallo.jpa.models.Category;
 import com.lorenzozagallo.jpa.services.CategoryService;
 import org.springframework.http.HttpStatus;
@@ -13,8 +17,8 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
-
-import java.util.List;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping(value = "/workshop/categories")
@@ -27,17 +31,39 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Category>> findAll() {
-        List<Category> list = categoryService.findAll();
-        return ResponseEntity.status(HttpStatus.OK).body(list);
+    public ResponseEntity<CursorPageRecordDto<Category>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit, WebRequest request) {
+        // 304 sem carregar a página quando a coleção não mudou desde o ETag do cliente; a página vem do cache
+        // da mesma versão que gerou o ETag
+        CollectionVersionRecordDto version = categoryService.findCollectionVersion();
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        CursorPageRecordDto<Category> page = categoryService.findAll(version, after, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<Category> findById(@PathVariable Long id) {
+    public ResponseEntity<Category> findById(@PathVariable Long id, WebRequest request) {
+        // Validadores tirados do próprio objeto servido (o do cache, quando houver), nunca de outra leitura
         Category obj = categoryService.findById(id);
+        EntityVersionRecordDto version = new EntityVersionRecordDto(obj.getId(), obj.getVersion(), obj.getLastModified());
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.status(HttpStatus.OK).body(obj);
     }
 
+    // Produtos da categoria paginados por cursor; sort = name (padrão) ou price, direction = asc ou desc
+    @GetMapping(value = "/{id}/products")
+    public ResponseEntity<CursorPageRecordDto<ProductSummaryRecordDto>> findProducts(@PathVariable Long id,
+            @RequestParam(required = false) String sort, @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        CursorPageRecordDto<ProductSummaryRecordDto> page = categoryService.findProducts(id, sort, direction, after,
+                limit);
+        return ResponseEntity.status(HttpStatus.OK).body(page);
+    }
+
     @PostMapping
     public ResponseEntity<Category> save(@RequestBody CategoryRecordDto categoryRecordDto) {
         Category obj = categoryService.save(categoryRecordDto);
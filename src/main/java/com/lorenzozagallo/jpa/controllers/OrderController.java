@@ -1,9 +1,15 @@
 package com.lorenzozagallo.jpa.controllers;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderBatchResultRecordDto;
 import com.lorenzozagallo.jpa.dtos.OrderItemRecordDto;
 import com.lorenzozagallo.jpa.dtos.OrderRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderSummaryRecordDto;
 import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.services.OrderBatchService;
+import com.lorenzozagallo.jpa.services.OrderExportService;
 import com.lorenzozagallo.jpa.services.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,24 +20,43 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping(value = "/workshop/orders")
 public class OrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderBatchService orderBatchService;
 
     // Injeção via Construtor
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderExportService orderExportService,
+            OrderBatchService orderBatchService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.orderBatchService = orderBatchService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Order>> findAll() {
-        List<Order> orders = orderService.findAll();
-        return ResponseEntity.ok().body(orders);
+    public ResponseEntity<CursorPageRecordDto<OrderSummaryRecordDto>> findAll(
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        CursorPageRecordDto<OrderSummaryRecordDto> page = orderService.findAll(after, limit);
+        return ResponseEntity.ok().body(page);
+    }
+
+    // Exportação completa em NDJSON, escrita direto no output stream (memória constante)
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        orderExportService.exportTo(response.getOutputStream());
     }
 
     @GetMapping(value = "/{id}")
@@ -48,6 +73,13 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
+    // Ingestão em lote: resposta traz o resultado de cada registro (criado ou rejeitado)
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderBatchResultRecordDto>> saveBatch(@RequestBody List<OrderRecordDto> orderRecordDtos) {
+        List<OrderBatchResultRecordDto> results = orderBatchService.saveBatch(orderRecordDtos);
+        return ResponseEntity.ok().body(results);
+    }
+
     @DeleteMapping(value = "/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         orderService.delete(id);
@@ -1,5 +1,6 @@
 package com.lorenzozagallo.jpa.controllers;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
 import com.lorenzozagallo.jpa.models.OrderItem;
 import com.lorenzozagallo.jpa.models.pk.OrderItemPK;
 import com.lorenzozagallo.jpa.services.OrderItemService;
@@ -7,8 +8,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/workshop/order-items")
 public class OrderItemController {
@@ -17,9 +16,10 @@ public class OrderItemController {
     private OrderItemService orderItemService;
 
     @GetMapping
-    public ResponseEntity<List<OrderItem>> findAll() {
-        List<OrderItem> items = orderItemService.findAll();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<CursorPageRecordDto<OrderItem>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPageRecordDto<OrderItem> page = orderItemService.findAll(after, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{orderId}/{productId}")
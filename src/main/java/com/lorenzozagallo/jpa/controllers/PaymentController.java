@@ -1,13 +1,16 @@
 package com.lorenzozagallo.jpa.controllers;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
+import com.lorenzozagallo.jpa.dtos.PaymentIntakeRecordDto;
 import com.lorenzozagallo.jpa.dtos.PaymentRecordDto;
 import com.lorenzozagallo.jpa.models.Payment;
+import com.lorenzozagallo.jpa.services.PaymentIntakeService;
 import com.lorenzozagallo.jpa.services.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/workshop/payments")
@@ -16,10 +19,14 @@ public class PaymentController {
     @Autowired
     public PaymentService paymentService;
 
+    @Autowired
+    public PaymentIntakeService paymentIntakeService;
+
     @GetMapping
-    public ResponseEntity<List<Payment>> findAll() {
-        List<Payment> payments = paymentService.findAll();
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<CursorPageRecordDto<Payment>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPageRecordDto<Payment> page = paymentService.findAll(after, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{id}")
@@ -34,6 +41,20 @@ public class PaymentController {
         return ResponseEntity.ok(payment);
     }
 
+    // Callbacks em rajada: 202 com trackingId, gravação assíncrona em lote; 503 se a fila estiver cheia
+    @PostMapping("/intake")
+    public ResponseEntity<PaymentIntakeRecordDto> submit(@RequestBody PaymentRecordDto paymentRecordDto) {
+        PaymentIntakeRecordDto status = paymentIntakeService.submit(paymentRecordDto);
+        return ResponseEntity.accepted()
+                .location(URI.create("/workshop/payments/intake/" + status.trackingId()))
+                .body(status);
+    }
+
+    @GetMapping("/intake/{trackingId}")
+    public ResponseEntity<PaymentIntakeRecordDto> findIntakeStatus(@PathVariable String trackingId) {
+        return ResponseEntity.ok(paymentIntakeService.findStatus(trackingId));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         paymentService.delete(id);
@@ -1,7 +1,12 @@
 package com.lorenzozagallo.jpa.controllers;
 
+import com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto;
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
+import com.lorenzozagallo.jpa.dtos.EntityVersionRecordDto;
 import com.lorenzozagallo.jpa.dtos.ProductRecordDto;
+import com.lorenzozagallo.jpa.dtos.ProductSearchRecordDto;
 import com.lorenzozagallo.jpa.models.Product;
+import com.lorenzozagallo.jpa.services.ProductSearchService;
 import com.lorenzozagallo.jpa.services.ProductService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +18,8 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,20 +28,48 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductSearchService productSearchService) {
         this.productService = productService;
+        this.productSearchService = productSearchService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> findAll() {
-        List<Product> list = productService.findAll();
-        return ResponseEntity.ok().body(list);
+    public ResponseEntity<CursorPageRecordDto<Product>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit, WebRequest request) {
+        // 304 sem carregar a página quando a coleção não mudou desde o ETag do cliente; a página vem do cache
+        // da mesma versão que gerou o ETag
+        CollectionVersionRecordDto version = productService.findCollectionVersion();
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        CursorPageRecordDto<Product> page = productService.findAll(version, after, limit);
+        return ResponseEntity.ok().body(page);
+    }
+
+    // Busca textual em nome e descrição, ordenada por relevância, com filtro opcional de categoria
+    @GetMapping(value = "/search")
+    public ResponseEntity<List<ProductSearchRecordDto>> search(@RequestParam String q,
+            @RequestParam(required = false) Long categoryId, @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok().body(productSearchService.search(q, categoryId, limit));
+    }
+
+    // Autocomplete: a última palavra de q é tratada como prefixo
+    @GetMapping(value = "/suggest")
+    public ResponseEntity<List<ProductSearchRecordDto>> suggest(@RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok().body(productSearchService.suggest(q, limit));
     }
 
     @GetMapping(value = "/{id}")
-    public ResponseEntity<Product> findById(@PathVariable Long id) {
+    public ResponseEntity<Product> findById(@PathVariable Long id, WebRequest request) {
+        // Validadores tirados do próprio objeto servido (o do cache, quando houver), nunca de outra leitura
         Product obj = productService.findById(id);
+        EntityVersionRecordDto version = new EntityVersionRecordDto(obj.getId(), obj.getVersion(), obj.getLastModified());
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok().body(obj);
     }
 
@@ -1,7 +1,10 @@
 package com.lorenzozagallo.jpa.controllers;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderSummaryRecordDto;
 import com.lorenzozagallo.jpa.dtos.UserRecordDto;
 import com.lorenzozagallo.jpa.models.User;
+import com.lorenzozagallo.jpa.services.OrderService;
 import com.lorenzozagallo.jpa.services.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,23 +16,25 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
-
-import java.util.List;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequestMapping(value = "/workshop/users")
 public class UserController {
 
     private final UserService userService;
+    private final OrderService orderService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, OrderService orderService) {
         this.userService = userService;
+        this.orderService = orderService;
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> findAll() {
-        List<User> list = userService.findAll();
-        return ResponseEntity.ok().body(list);
+    public ResponseEntity<CursorPageRecordDto<User>> findAll(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPageRecordDto<User> page = userService.findAll(after, limit);
+        return ResponseEntity.ok().body(page);
     }
 
     @GetMapping(value = "/{id}")
@@ -38,6 +43,14 @@ public class UserController {
         return ResponseEntity.ok().body(obj);
     }
 
+    // Histórico de pedidos do cliente, do mais recente ao mais antigo, paginado por cursor
+    @GetMapping(value = "/{id}/orders")
+    public ResponseEntity<CursorPageRecordDto<OrderSummaryRecordDto>> findOrders(@PathVariable Long id,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        CursorPageRecordDto<OrderSummaryRecordDto> page = orderService.findByClient(id, after, limit);
+        return ResponseEntity.ok().body(page);
+    }
+
     @PostMapping
     public ResponseEntity<User> save(@RequestBody UserRecordDto userRecordDto) {
         User obj = userService.save(userRecordDto);
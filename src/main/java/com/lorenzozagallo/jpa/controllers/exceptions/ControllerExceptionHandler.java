@@ -1,8 +1,14 @@
 package com.lorenzozagallo.jpa.controllers.exceptions;
 
+import com.lorenzozagallo.jpa.services.exceptions.ConcurrencyConflictException;
 import com.lorenzozagallo.jpa.services.exceptions.DatabaseException;
+import com.lorenzozagallo.jpa.services.exceptions.IntakeQueueFullException;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidCursorException;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidRequestException;
 import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -29,6 +35,40 @@ public class ControllerExceptionHandler {
         return ResponseEntity.status(status).body(err);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<StandardError> invalidCursor(InvalidCursorException e, HttpServletRequest request) {
+        String error = "Invalid cursor";
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        StandardError err = new StandardError(Instant.now(), status.value(), error, e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<StandardError> invalidRequest(InvalidRequestException e, HttpServletRequest request) {
+        String error = "Invalid request";
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        StandardError err = new StandardError(Instant.now(), status.value(), error, e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    // Conflito de versão (@Version) ou inclusão concorrente que esgotou as tentativas: o cliente pode repetir
+    @ExceptionHandler({ ConcurrencyConflictException.class, OptimisticLockingFailureException.class })
+    public ResponseEntity<StandardError> concurrencyConflict(RuntimeException e, HttpServletRequest request) {
+        String error = "Concurrent update";
+        HttpStatus status = HttpStatus.CONFLICT;
+        StandardError err = new StandardError(Instant.now(), status.value(), error, e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    // Backpressure da ingestão de pagamentos: o cliente deve reenviar depois do Retry-After
+    @ExceptionHandler(IntakeQueueFullException.class)
+    public ResponseEntity<StandardError> intakeQueueFull(IntakeQueueFullException e, HttpServletRequest request) {
+        String error = "Service unavailable";
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        StandardError err = new StandardError(Instant.now(), status.value(), error, e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(err);
+    }
+
     // @ExceptionHandler(ResourceNotFoundException.class)
     // public ResponseEntity<String> handlerResourceNotFound(ResourceNotFoundException e) {
     //     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -1,6 +1,7 @@
 package com.lorenzozagallo.jpa.controllers.exceptions;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.lorenzozagallo.jpa.config.UtcInstantSerializer;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -11,7 +12,7 @@ public class StandardError implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "GMT")
+    @JsonSerialize(using = UtcInstantSerializer.class)
     private Instant timestamp;
     private Integer status;
     private String error;
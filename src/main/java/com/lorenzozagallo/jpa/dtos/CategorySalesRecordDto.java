@@ -0,0 +1,9 @@
+package com.lorenzozagallo.jpa.dtos;
+
+// Um produto em várias categorias conta em cada uma delas: a soma entre categorias pode passar do total
+public record CategorySalesRecordDto(Long categoryId,
+        String name,
+        Long orders,
+        Long quantity,
+        Double revenue) {
+}
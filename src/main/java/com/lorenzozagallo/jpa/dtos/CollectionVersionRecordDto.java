@@ -0,0 +1,18 @@
+package com.lorenzozagallo.jpa.dtos;
+
+import java.time.Instant;
+
+// Versão de uma coleção inteira, agregada das colunas version/last_modified da tabela (ver CollectionVersion):
+// inclusão e exclusão mudam a contagem, alteração soma 1 na versão de alguma linha
+public record CollectionVersionRecordDto(Long count,
+        Long version,
+        Instant lastModified) {
+
+    public String eTag() {
+        return "\"" + count + "-" + version + "-" + Math.max(0, lastModifiedMillis()) + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+}
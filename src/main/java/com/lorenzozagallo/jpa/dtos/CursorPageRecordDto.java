@@ -0,0 +1,8 @@
+package com.lorenzozagallo.jpa.dtos;
+
+import java.util.List;
+
+// nextCursor é nulo quando não há mais páginas
+public record CursorPageRecordDto<T>(List<T> content,
+        String nextCursor) {
+}
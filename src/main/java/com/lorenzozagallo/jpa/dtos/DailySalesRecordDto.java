@@ -0,0 +1,10 @@
+package com.lorenzozagallo.jpa.dtos;
+
+import java.time.LocalDate;
+
+// Uma linha do consolidado diário: pedidos feitos, pagamentos recebidos e receita paga no dia
+public record DailySalesRecordDto(LocalDate date,
+        Long orders,
+        Long payments,
+        Double revenue) {
+}
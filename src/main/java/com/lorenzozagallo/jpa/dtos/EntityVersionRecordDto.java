@@ -0,0 +1,18 @@
+package com.lorenzozagallo.jpa.dtos;
+
+import java.time.Instant;
+
+// Versão de uma entidade do catálogo para GETs condicionais, tirada do objeto que vai no corpo
+public record EntityVersionRecordDto(Long id,
+        Long version,
+        Instant lastModified) {
+
+    public String eTag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // -1 desliga a checagem de If-Modified-Since em WebRequest.checkNotModified
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+}
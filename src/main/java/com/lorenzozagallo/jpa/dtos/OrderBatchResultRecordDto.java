@@ -0,0 +1,19 @@
+package com.lorenzozagallo.jpa.dtos;
+
+// Resultado de cada registro do lote, na mesma posição (index) em que foi enviado
+public record OrderBatchResultRecordDto(int index,
+        Long orderId,
+        String status,
+        String message) {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    public static OrderBatchResultRecordDto created(int index, Long orderId) {
+        return new OrderBatchResultRecordDto(index, orderId, CREATED, null);
+    }
+
+    public static OrderBatchResultRecordDto rejected(int index, String message) {
+        return new OrderBatchResultRecordDto(index, null, REJECTED, message);
+    }
+}
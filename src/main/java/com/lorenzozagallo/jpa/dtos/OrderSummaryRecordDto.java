@@ -0,0 +1,17 @@
+package com.lorenzozagallo.jpa.dtos;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.lorenzozagallo.jpa.config.UtcInstantSerializer;
+import com.lorenzozagallo.jpa.models.enums.OrderStatus;
+
+import java.time.Instant;
+
+// Visão leve do pedido para listagens: vem direto das colunas de orders, sem carregar itens
+public record OrderSummaryRecordDto(Long id,
+        @JsonSerialize(using = UtcInstantSerializer.class)
+        Instant moment,
+        OrderStatus orderStatus,
+        Long clientId,
+        Double total,
+        Integer itemCount) {
+}
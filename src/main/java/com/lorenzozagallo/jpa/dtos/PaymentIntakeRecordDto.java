@@ -0,0 +1,27 @@
+package com.lorenzozagallo.jpa.dtos;
+
+import java.time.Instant;
+
+// Situação de um pagamento recebido pela fila de ingestão, consultada pelo trackingId
+public record PaymentIntakeRecordDto(String trackingId,
+        Long orderId,
+        String status,
+        String message,
+        Instant updatedAt) {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RECORDED = "RECORDED";
+    public static final String REJECTED = "REJECTED";
+
+    public static PaymentIntakeRecordDto queued(String trackingId, Long orderId) {
+        return new PaymentIntakeRecordDto(trackingId, orderId, QUEUED, null, Instant.now());
+    }
+
+    public PaymentIntakeRecordDto recorded() {
+        return new PaymentIntakeRecordDto(trackingId, orderId, RECORDED, null, Instant.now());
+    }
+
+    public PaymentIntakeRecordDto rejected(String message) {
+        return new PaymentIntakeRecordDto(trackingId, orderId, REJECTED, message, Instant.now());
+    }
+}
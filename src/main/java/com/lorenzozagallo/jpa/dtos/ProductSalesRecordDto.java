@@ -0,0 +1,8 @@
+package com.lorenzozagallo.jpa.dtos;
+
+public record ProductSalesRecordDto(Long productId,
+        String name,
+        Long orders,
+        Long quantity,
+        Double revenue) {
+}
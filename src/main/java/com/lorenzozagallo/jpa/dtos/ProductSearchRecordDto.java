@@ -0,0 +1,9 @@
+package com.lorenzozagallo.jpa.dtos;
+
+// Resultado da busca, montado só com o que está no índice (sem consulta ao banco)
+public record ProductSearchRecordDto(Long id,
+        String name,
+        Double price,
+        String imgUrl,
+        Double score) {
+}
@@ -0,0 +1,8 @@
+package com.lorenzozagallo.jpa.dtos;
+
+// Visão leve do produto para listagens por categoria: só colunas de products, sem categorias
+public record ProductSummaryRecordDto(Long id,
+        String name,
+        Double price,
+        String imgUrl) {
+}
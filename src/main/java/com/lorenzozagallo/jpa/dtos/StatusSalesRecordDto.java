@@ -0,0 +1,8 @@
+package com.lorenzozagallo.jpa.dtos;
+
+import com.lorenzozagallo.jpa.models.enums.OrderStatus;
+
+public record StatusSalesRecordDto(OrderStatus status,
+        Long orders,
+        Double revenue) {
+}
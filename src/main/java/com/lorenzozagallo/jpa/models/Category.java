@@ -1,7 +1,10 @@
 package com.lorenzozagallo.jpa.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -15,6 +18,15 @@ public class Category {
 
     private String name;
 
+    // Versão otimista e data da última alteração: base dos ETags/Last-Modified das respostas.
+    // Default 0 no banco para que linhas antigas ganhem versão ao adicionar a coluna.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    private Instant lastModified;
+
     @ManyToMany(mappedBy = "categories")
     private Set<Product> products = new HashSet<>();
 
@@ -42,6 +54,8 @@ public class Category {
         this.name = name;
     }
 
+    // Fora do JSON: Product já serializa suas categorias, e o caminho inverso carregaria a categoria inteira
+    @JsonIgnore
     public Set<Product> getProducts() {
         return products;
     }
@@ -49,4 +63,18 @@ public class Category {
     public void setProducts(Set<Product> products) {
         this.products = products;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
 }
@@ -0,0 +1,44 @@
+package com.lorenzozagallo.jpa.models;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Consolidado diário de vendas, mantido incrementalmente por pedidos e pagamentos (ver SalesRollupService).
+// Pedidos contam no dia em que foram feitos; pagamentos e receita, no dia em que foram recebidos.
+@Entity
+@Table(name = "daily_sales")
+public class DailySales {
+
+    @Id
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false)
+    private Long paymentCount;
+
+    @Column(nullable = false)
+    private Double revenue;
+
+    public DailySales() {
+    }
+
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public Long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public Double getRevenue() {
+        return revenue;
+    }
+}
@@ -1,39 +1,73 @@
 package com.lorenzozagallo.jpa.models;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.lorenzozagallo.jpa.config.UtcInstantSerializer;
 import com.lorenzozagallo.jpa.models.enums.OrderStatus;
+import com.lorenzozagallo.jpa.models.enums.OrderStatusConverter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+// Esquema e índices nas migrações do Flyway (db/migration/{vendor})
 @Table(name = "orders")
+// Planos de busca: "summary" para leituras em massa (sem coleções) e "detail" para um único pedido.
+// As coleções aninhadas (items -> product -> categories) ficam a cargo do batch fetching.
+@NamedEntityGraph(name = Order.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("payment") })
+@NamedEntityGraph(name = Order.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("payment"),
+        @NamedAttributeNode(value = "items", subgraph = "items") },
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 public class Order {
 
+    public static final String SUMMARY_GRAPH = "Order.summary";
+    public static final String DETAIL_GRAPH = "Order.detail";
+
+    // SEQUENCE (e não IDENTITY) para o Hibernate conseguir agrupar os INSERTs em batch:
+    // os IDs são reservados de 50 em 50 antes do flush
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     // FORMATO ISO 8601 (Padrão mundial)
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'", timezone = "GMT")
+    @JsonSerialize(using = UtcInstantSerializer.class)
     private Instant moment;
 
-    @Enumerated(EnumType.STRING)
+    // TINYINT no banco (ver OrderStatusConverter)
+    @Convert(converter = OrderStatusConverter.class)
     private OrderStatus orderStatus;
 
     @ManyToOne
     @JoinColumn(name = "client_id")
     private User client;
 
-    @OneToMany(mappedBy = "order")
+    // Salvar o pedido persiste os itens novos junto
+    @OneToMany(mappedBy = "order", cascade = { CascadeType.PERSIST, CascadeType.MERGE })
     private Set<OrderItem> items = new HashSet<>();
 
     // Cascade ALL garante que se salvar o pedido, salva o pagamento junto
     @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
     private Payment payment;
 
+    // Total e quantidade de itens persistidos: as listagens leem estas colunas sem tocar em order_items.
+    // Mantidos de forma incremental pelos services; nulos apenas em linhas antigas ainda não reparadas.
+    private Double total;
+    private Integer itemCount;
+
+    // Versão otimista: uma atualização feita sobre um pedido lido antes de uma inclusão de item
+    // concorrente falha em vez de sobrescrever total e itemCount. Default 0 para linhas antigas.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Order() {
     }
 
@@ -45,6 +79,27 @@ public class Order {
     }
 
     public double getTotal() {
+        return total != null ? total : 0.0;
+    }
+
+    public void setTotal(Double total) {
+        this.total = total;
+    }
+
+    public int getItemCount() {
+        return itemCount != null ? itemCount : 0;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    // Recalcula a partir dos itens carregados (percorre a coleção inteira)
+    public double computeTotal() {
         double sum = 0;
         for (OrderItem x : items) {
             sum += x.getSubTotal();
@@ -52,6 +107,16 @@ public class Order {
         return sum;
     }
 
+    public void recalculateTotals() {
+        this.total = computeTotal();
+        this.itemCount = items.size();
+    }
+
+    public void addToTotals(double delta, int count) {
+        this.total = getTotal() + delta;
+        this.itemCount = getItemCount() + count;
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -3,6 +3,7 @@ package com.lorenzozagallo.jpa.models;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
+import java.time.Instant;
 import java.util.Date;
 
 @Entity
@@ -13,8 +14,12 @@ public class Payment{
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Temporal(TemporalType.TIMESTAMP)
-    private Date moment;
+    // Instant é gravado em UTC (DATETIMEOFFSET), como orders.moment: o dia do pagamento no consolidado não depende
+    // do fuso da JVM que gravou. Getter e setter continuam com Date, o tipo exposto na API
+    private Instant moment;
+
+    // Total do pedido no momento do pagamento: é o que entra (e sai) da receita do consolidado diário
+    private Double amount;
 
     @OneToOne
     @MapsId
@@ -30,11 +35,19 @@ public class Payment{
     }
 
     public Date getMoment() {
-        return moment;
+        return moment != null ? Date.from(moment) : null;
     }
 
     public void setMoment(Date moment) {
-        this.moment = moment;
+        this.moment = moment != null ? moment.toInstant() : null;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
     }
 
     public Order getOrder() {
@@ -44,4 +57,11 @@ public class Payment{
     public void setOrder(Order order) {
         this.order = order;
     }
+
+    @PrePersist
+    void captureAmount() {
+        if (amount == null && order != null) {
+            amount = order.getTotal();
+        }
+    }
 }
@@ -2,7 +2,9 @@ package com.lorenzozagallo.jpa.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -19,6 +21,15 @@ public class Product {
     private Double price;
     private String imgUrl;
 
+    // Versão otimista e data da última alteração: base dos ETags/Last-Modified das respostas.
+    // Default 0 no banco para que linhas antigas ganhem versão ao adicionar a coluna.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    private Instant lastModified;
+
     @ManyToMany
     @JoinTable(name = "product_category",
             joinColumns = @JoinColumn(name = "product_id"),
@@ -97,6 +108,8 @@ public class Product {
         this.categories = categories;
     }
 
+    // Fora do JSON: o item já referencia o produto, serializar de volta gera ciclo
+    @JsonIgnore
     public Set<OrderItem> getItems() {
         return items;
     }
@@ -104,4 +117,18 @@ public class Product {
     public void setItems(Set<OrderItem> items) {
         this.items = items;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now();
+    }
 }
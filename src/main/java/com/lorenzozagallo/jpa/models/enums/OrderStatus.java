@@ -13,6 +13,10 @@ public enum OrderStatus {
         this.value = value;
     }
 
+    public int getValue() {
+        return value;
+    }
+
     public static OrderStatus fromValue(int value) {
         for (OrderStatus status : values()) {
             if (status.value == value) {
@@ -0,0 +1,19 @@
+package com.lorenzozagallo.jpa.models.enums;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Grava o status como TINYINT (OrderStatus.getValue()) em vez do nome do enum
+@Converter
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Byte> {
+
+    @Override
+    public Byte convertToDatabaseColumn(OrderStatus status) {
+        return status != null ? (byte) status.getValue() : null;
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Byte value) {
+        return value != null ? OrderStatus.fromValue(value) : null;
+    }
+}
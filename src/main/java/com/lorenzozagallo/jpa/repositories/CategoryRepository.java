@@ -1,9 +1,27 @@
 package com.lorenzozagallo.jpa.repositories;
 
+import com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto;
 import com.lorenzozagallo.jpa.models.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // Paginação por chave: usa o índice da PK e nunca varre a tabela inteira. Só alimenta leituras, então as
+    // entidades vêm read-only (sem a cópia de estado que o Hibernate guarda para o dirty checking)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Category> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Versão da coleção para o ETag das listagens (CollectionVersion)
+    @Query("select new com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto("
+            + "count(c), coalesce(sum(c.version), 0), max(c.lastModified)) from Category c")
+    CollectionVersionRecordDto findCollectionVersion();
 }
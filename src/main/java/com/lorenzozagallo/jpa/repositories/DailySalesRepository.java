@@ -0,0 +1,76 @@
+package com.lorenzozagallo.jpa.repositories;
+
+import com.lorenzozagallo.jpa.dtos.DailySalesRecordDto;
+import com.lorenzozagallo.jpa.models.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    @Query("select new com.lorenzozagallo.jpa.dtos.DailySalesRecordDto("
+            + "d.salesDate, d.orderCount, d.paymentCount, d.revenue) "
+            + "from DailySales d where d.salesDate >= :from and d.salesDate < :to order by d.salesDate")
+    List<DailySalesRecordDto> findBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // O dia é calculado no próprio banco, com a mesma expressão do rebuild, e os pedidos são agrupados
+    // por dia antes do MERGE: um lote inteiro vira uma linha por dia. sign = -1 desconta (exclusões).
+    // orders.moment e payments.moment são DATETIMEOFFSET; AT TIME ZONE 'UTC' garante o dia UTC mesmo
+    // que alguma linha tenha sido gravada com outro offset.
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "MERGE INTO daily_sales AS t "
+            + "USING (SELECT CAST(o.moment AT TIME ZONE 'UTC' AS DATE) AS sales_date, COUNT(*) AS order_count "
+            + "FROM orders o WHERE o.id IN (:orderIds) GROUP BY CAST(o.moment AT TIME ZONE 'UTC' AS DATE)) AS s "
+            + "ON t.sales_date = s.sales_date "
+            + "WHEN MATCHED THEN UPDATE SET order_count = t.order_count + :sign * s.order_count "
+            + "WHEN NOT MATCHED THEN INSERT (sales_date, order_count, payment_count, revenue) "
+            + "VALUES (s.sales_date, :sign * s.order_count, 0, 0);", nativeQuery = true)
+    int addOrders(@Param("orderIds") Collection<Long> orderIds, @Param("sign") int sign);
+
+    // Receita pelo valor gravado no próprio pagamento (payments.amount): descontar usa exatamente o que foi
+    // somado, mesmo que o total do pedido tenha mudado depois
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "MERGE INTO daily_sales AS t "
+            + "USING (SELECT CAST(p.moment AT TIME ZONE 'UTC' AS DATE) AS sales_date, COUNT(*) AS payment_count, "
+            + "COALESCE(SUM(p.amount), 0) AS revenue "
+            + "FROM payments p "
+            + "WHERE p.order_id IN (:orderIds) GROUP BY CAST(p.moment AT TIME ZONE 'UTC' AS DATE)) AS s "
+            + "ON t.sales_date = s.sales_date "
+            + "WHEN MATCHED THEN UPDATE SET payment_count = t.payment_count + :sign * s.payment_count, "
+            + "revenue = t.revenue + :sign * s.revenue "
+            + "WHEN NOT MATCHED THEN INSERT (sales_date, order_count, payment_count, revenue) "
+            + "VALUES (s.sales_date, 0, :sign * s.payment_count, :sign * s.revenue);", nativeQuery = true)
+    int addPayments(@Param("orderIds") Collection<Long> orderIds, @Param("sign") int sign);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM daily_sales WHERE sales_date >= :from AND sales_date < :to", nativeQuery = true)
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recalcula o intervalo a partir das tabelas de origem, em um único INSERT ... SELECT
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales (sales_date, order_count, payment_count, revenue) "
+            + "SELECT x.sales_date, SUM(x.order_count), SUM(x.payment_count), SUM(x.revenue) FROM ("
+            + "SELECT CAST(o.moment AT TIME ZONE 'UTC' AS DATE) AS sales_date, COUNT(*) AS order_count, 0 AS payment_count, "
+            + "CAST(0 AS FLOAT) AS revenue FROM orders o "
+            + "WHERE CAST(o.moment AT TIME ZONE 'UTC' AS DATE) >= :from AND CAST(o.moment AT TIME ZONE 'UTC' AS DATE) < :to "
+            + "GROUP BY CAST(o.moment AT TIME ZONE 'UTC' AS DATE) "
+            + "UNION ALL "
+            + "SELECT CAST(p.moment AT TIME ZONE 'UTC' AS DATE), 0, COUNT(*), COALESCE(SUM(p.amount), 0) "
+            + "FROM payments p "
+            + "WHERE CAST(p.moment AT TIME ZONE 'UTC' AS DATE) >= :from AND CAST(p.moment AT TIME ZONE 'UTC' AS DATE) < :to "
+            + "GROUP BY CAST(p.moment AT TIME ZONE 'UTC' AS DATE)"
+            + ") x GROUP BY x.sales_date", nativeQuery = true)
+    int insertBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
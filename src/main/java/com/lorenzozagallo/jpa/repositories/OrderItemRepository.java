@@ -1,10 +1,64 @@
 package com.lorenzozagallo.jpa.repositories;
 
+import com.lorenzozagallo.jpa.dtos.CategorySalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.ProductSalesRecordDto;
 import com.lorenzozagallo.jpa.models.OrderItem;
+import com.lorenzozagallo.jpa.models.enums.OrderStatus;
 import com.lorenzozagallo.jpa.models.pk.OrderItemPK;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemPK> {
+
+    // Paginação por chave composta (orderId, productId); retorno em List não dispara COUNT. Entidades read-only
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select oi from OrderItem oi "
+            + "where oi.id.orderId > :orderId "
+            + "or (oi.id.orderId = :orderId and oi.id.productId > :productId) "
+            + "order by oi.id.orderId, oi.id.productId")
+    List<OrderItem> findPageAfter(@Param("orderId") Long orderId, @Param("productId") Long productId,
+            Pageable pageable);
+
+    // Ranking de produtos por receita no intervalo, agregado direto sobre order_items (pedidos cancelados fora)
+    @Query("select new com.lorenzozagallo.jpa.dtos.ProductSalesRecordDto("
+            + "p.id, p.name, count(distinct o.id), sum(oi.quantity), sum(oi.price * oi.quantity)) "
+            + "from OrderItem oi join oi.order o join oi.product p "
+            + "where o.moment >= :from and o.moment < :to and o.orderStatus <> :excluded "
+            + "group by p.id, p.name order by sum(oi.price * oi.quantity) desc, p.id")
+    List<ProductSalesRecordDto> sumByProduct(@Param("from") Instant from, @Param("to") Instant to,
+            @Param("excluded") OrderStatus excluded, Pageable pageable);
+
+    @Query("select new com.lorenzozagallo.jpa.dtos.CategorySalesRecordDto("
+            + "c.id, c.name, count(distinct o.id), sum(oi.quantity), sum(oi.price * oi.quantity)) "
+            + "from OrderItem oi join oi.order o join oi.product p join p.categories c "
+            + "where o.moment >= :from and o.moment < :to and o.orderStatus <> :excluded "
+            + "group by c.id, c.name order by sum(oi.price * oi.quantity) desc, c.id")
+    List<CategorySalesRecordDto> sumByCategory(@Param("from") Instant from, @Param("to") Instant to,
+            @Param("excluded") OrderStatus excluded);
+
+    // Upsert em um único statement (MERGE padrão SQL, aceito por SQL Server e H2): soma a quantidade se o
+    // item já existe, senão insere. Duas inserções simultâneas do mesmo item ainda podem colidir na PK;
+    // quem chama repete a operação, que na segunda vez cai no ramo MATCHED.
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "MERGE INTO order_items AS t "
+            + "USING (VALUES (:orderId, :productId, :quantity, :price)) AS s (order_id, product_id, quantity, price) "
+            + "ON t.order_id = s.order_id AND t.product_id = s.product_id "
+            + "WHEN MATCHED THEN UPDATE SET quantity = t.quantity + s.quantity, price = s.price "
+            + "WHEN NOT MATCHED THEN INSERT (order_id, product_id, quantity, price) "
+            + "VALUES (s.order_id, s.product_id, s.quantity, s.price);", nativeQuery = true)
+    int mergeQuantity(@Param("orderId") Long orderId, @Param("productId") Long productId,
+            @Param("quantity") int quantity, @Param("price") double price);
 }
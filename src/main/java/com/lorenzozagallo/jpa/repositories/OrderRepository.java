@@ -1,9 +1,96 @@
 package com.lorenzozagallo.jpa.repositories;
 
+import com.lorenzozagallo.jpa.dtos.OrderSummaryRecordDto;
+import com.lorenzozagallo.jpa.dtos.StatusSalesRecordDto;
 import com.lorenzozagallo.jpa.models.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    // Paginação por chave sobre a PK, lendo só as colunas de orders (total e itemCount persistidos)
+    @Query("select new com.lorenzozagallo.jpa.dtos.OrderSummaryRecordDto("
+            + "o.id, o.moment, o.orderStatus, o.client.id, o.total, o.itemCount) "
+            + "from Order o where o.id > :after order by o.id")
+    List<OrderSummaryRecordDto> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    // Histórico do cliente, mais recentes primeiro: keyset sobre (moment, id) no índice (client_id, moment, id),
+    // lido em ordem reversa; o custo da página não depende de quantos pedidos o cliente tem
+    @Query("select new com.lorenzozagallo.jpa.dtos.OrderSummaryRecordDto("
+            + "o.id, o.moment, o.orderStatus, o.client.id, o.total, o.itemCount) "
+            + "from Order o where o.client.id = :clientId order by o.moment desc, o.id desc")
+    List<OrderSummaryRecordDto> findClientSummaries(@Param("clientId") Long clientId, Pageable pageable);
+
+    @Query("select new com.lorenzozagallo.jpa.dtos.OrderSummaryRecordDto("
+            + "o.id, o.moment, o.orderStatus, o.client.id, o.total, o.itemCount) "
+            + "from Order o where o.client.id = :clientId "
+            + "and (o.moment < :moment or (o.moment = :moment and o.id < :id)) "
+            + "order by o.moment desc, o.id desc")
+    List<OrderSummaryRecordDto> findClientSummariesBefore(@Param("clientId") Long clientId,
+            @Param("moment") Instant moment, @Param("id") Long id, Pageable pageable);
+
+    // Agregado por status num intervalo de datas (índice em orders.moment); lê só colunas de orders
+    @Query("select new com.lorenzozagallo.jpa.dtos.StatusSalesRecordDto("
+            + "o.orderStatus, count(o), coalesce(sum(o.total), 0.0)) "
+            + "from Order o where o.moment >= :from and o.moment < :to "
+            + "group by o.orderStatus order by o.orderStatus")
+    List<StatusSalesRecordDto> sumByStatus(@Param("from") Instant from, @Param("to") Instant to);
+
+    @EntityGraph(Order.DETAIL_GRAPH)
+    Optional<Order> findDetailById(Long id);
+
+    // Cursor do JDBC lido em blocos de STREAM_FETCH_SIZE linhas; precisa de transação aberta e deve ser fechado
+    @EntityGraph(Order.SUMMARY_GRAPH)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("select o from Order o order by o.id")
+    Stream<Order> streamAll();
+
+    @Query("select o.id from Order o where o.id > :after order by o.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    // Atualização incremental atômica (sem ler o pedido): soma o delta direto na linha
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Order o set o.total = coalesce(o.total, 0) + :delta, "
+            + "o.itemCount = coalesce(o.itemCount, 0) + :count, o.version = o.version + 1 where o.id = :id")
+    int addToTotals(@Param("id") Long id, @Param("delta") double delta, @Param("count") int count);
+
+    // Recalcula total e quantidade de itens de um intervalo de pedidos a partir de order_items
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE orders SET "
+            + "total = (SELECT COALESCE(SUM(oi.price * oi.quantity), 0) FROM order_items oi WHERE oi.order_id = orders.id), "
+            + "item_count = (SELECT COUNT(*) FROM order_items oi WHERE oi.order_id = orders.id) "
+            + "WHERE id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int recomputeTotals(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Recalcula os totais de um único pedido e avança sua versão. O UPDATE trava a linha do pedido até o
+    // commit, então inclusões concorrentes no mesmo pedido se alinham só neste ponto.
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE orders SET "
+            + "total = (SELECT COALESCE(SUM(oi.price * oi.quantity), 0) FROM order_items oi WHERE oi.order_id = orders.id), "
+            + "item_count = (SELECT COUNT(*) FROM order_items oi WHERE oi.order_id = orders.id), "
+            + "version = version + 1 "
+            + "WHERE id = :id", nativeQuery = true)
+    int recomputeTotalsOf(@Param("id") Long id);
 }
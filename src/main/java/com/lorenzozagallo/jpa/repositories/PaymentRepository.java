@@ -1,9 +1,20 @@
 package com.lorenzozagallo.jpa.repositories;
 
 import com.lorenzozagallo.jpa.models.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    // Paginação por chave: usa o índice da PK e nunca varre a tabela inteira. Só alimenta leituras, então as
+    // entidades vêm read-only (sem a cópia de estado que o Hibernate guarda para o dirty checking)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Payment> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,29 @@
+package com.lorenzozagallo.jpa.repositories;
+
+import com.lorenzozagallo.jpa.dtos.ProductSummaryRecordDto;
+
+import java.util.List;
+
+// Fragmento do ProductRepository para a listagem por categoria: a ordenação varia, então o JPQL é montado
+// em ProductPageRepositoryImpl em vez de uma @Query para cada combinação de campo e direção
+public interface ProductPageRepository {
+
+    enum SortKey {
+        PRICE("price"),
+        NAME("name");
+
+        private final String attribute;
+
+        SortKey(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String attribute() {
+            return attribute;
+        }
+    }
+
+    // afterValue/afterId nulos = primeira página; maxResults já inclui a linha extra do Cursor
+    List<ProductSummaryRecordDto> findByCategoryAfter(Long categoryId, SortKey sortKey, boolean descending,
+            Object afterValue, Long afterId, int maxResults);
+}
@@ -0,0 +1,46 @@
+package com.lorenzozagallo.jpa.repositories;
+
+import com.lorenzozagallo.jpa.dtos.ProductSummaryRecordDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class ProductPageRepositoryImpl implements ProductPageRepository {
+
+    private final EntityManager entityManager;
+
+    public ProductPageRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Keyset sobre (campo, id): com os índices (category_id, product_id) em product_category e (campo, id)
+    // em products, o banco escolhe entre percorrer a categoria ou os produtos já ordenados, e em ambos os
+    // casos para ao completar a página. Produtos sem o campo de ordenação ficam fora da listagem.
+    @Override
+    public List<ProductSummaryRecordDto> findByCategoryAfter(Long categoryId, SortKey sortKey, boolean descending,
+            Object afterValue, Long afterId, int maxResults) {
+        String field = "p." + sortKey.attribute();
+        String direction = descending ? "desc" : "asc";
+        String comparison = descending ? "<" : ">";
+        StringBuilder jpql = new StringBuilder()
+                .append("select new com.lorenzozagallo.jpa.dtos.ProductSummaryRecordDto(")
+                .append("p.id, p.name, p.price, p.imgUrl) ")
+                .append("from Product p join p.categories c ")
+                .append("where c.id = :categoryId and ").append(field).append(" is not null ");
+        if (afterId != null) {
+            jpql.append("and (").append(field).append(' ').append(comparison).append(" :afterValue or (")
+                    .append(field).append(" = :afterValue and p.id ").append(comparison).append(" :afterId)) ");
+        }
+        jpql.append("order by ").append(field).append(' ').append(direction).append(", p.id ").append(direction);
+
+        TypedQuery<ProductSummaryRecordDto> query = entityManager.createQuery(jpql.toString(),
+                ProductSummaryRecordDto.class);
+        query.setParameter("categoryId", categoryId);
+        if (afterId != null) {
+            query.setParameter("afterValue", afterValue);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(maxResults).getResultList();
+    }
+}
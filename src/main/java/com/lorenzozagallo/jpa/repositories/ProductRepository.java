@@ -1,9 +1,39 @@
 package com.lorenzozagallo.jpa.repositories;
 
+import com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto;
 import com.lorenzozagallo.jpa.models.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductPageRepository {
+
+    // Paginação por chave: usa o índice da PK e nunca varre a tabela inteira. Só alimenta leituras, então as
+    // entidades vêm read-only (sem a cópia de estado que o Hibernate guarda para o dirty checking)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // O JSON do produto inclui as categorias: alterar uma categoria avança a versão dos produtos dela,
+    // invalidando os ETags já entregues sem que a leitura precise olhar para categories
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.version = p.version + 1, p.lastModified = :now "
+            + "where p.id in (select p2.id from Product p2 join p2.categories c where c.id = :categoryId)")
+    int touchByCategory(@Param("categoryId") Long categoryId, @Param("now") Instant now);
+
+    // Versão da coleção para o ETag das listagens (CollectionVersion)
+    @Query("select new com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto("
+            + "count(p), coalesce(sum(p.version), 0), max(p.lastModified)) from Product p")
+    CollectionVersionRecordDto findCollectionVersion();
 }
@@ -0,0 +1,101 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.dtos.CategorySalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.DailySalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.ProductSalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.StatusSalesRecordDto;
+import com.lorenzozagallo.jpa.models.enums.OrderStatus;
+import com.lorenzozagallo.jpa.repositories.DailySalesRepository;
+import com.lorenzozagallo.jpa.repositories.OrderItemRepository;
+import com.lorenzozagallo.jpa.repositories.OrderRepository;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidRequestException;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Consultas do painel financeiro. A série diária sai do consolidado daily_sales (uma linha por dia);
+// os recortes por status, produto e categoria são agregações set-based limitadas a um intervalo de datas.
+// Datas são dias UTC, intervalo [from, to); sem parâmetros, os últimos DEFAULT_DAYS dias.
+// Só leitura: as consultas rodam em transações readOnly e, com réplica configurada, são atendidas por ela.
+@Service
+public class AnalyticsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private static final int DEFAULT_DAYS = 30;
+    // Os agregados por status/produto/categoria varrem pedidos do intervalo; acima disso, use a série diária
+    private static final int MAX_AGGREGATE_DAYS = 366;
+
+    private final DailySalesRepository dailySalesRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    public AnalyticsService(DailySalesRepository dailySalesRepository, OrderRepository orderRepository,
+            OrderItemRepository orderItemRepository) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySalesRecordDto> findDaily(LocalDate from, LocalDate to) {
+        Range range = Range.of(from, to, Integer.MAX_VALUE);
+        LOGGER.debug("Buscando vendas diárias de {} a {}", range.from(), range.to());
+        return dailySalesRepository.findBetween(range.from(), range.to());
+    }
+
+    @Transactional(readOnly = true)
+    public List<StatusSalesRecordDto> findByStatus(LocalDate from, LocalDate to) {
+        Range range = Range.of(from, to, MAX_AGGREGATE_DAYS);
+        LOGGER.debug("Buscando vendas por status de {} a {}", range.from(), range.to());
+        return orderRepository.sumByStatus(range.fromInstant(), range.toInstant());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesRecordDto> findByProduct(LocalDate from, LocalDate to, Integer limit) {
+        Range range = Range.of(from, to, MAX_AGGREGATE_DAYS);
+        LOGGER.debug("Buscando vendas por produto de {} a {}", range.from(), range.to());
+        return orderItemRepository.sumByProduct(range.fromInstant(), range.toInstant(), OrderStatus.CANCELED,
+                PageRequest.ofSize(Cursor.limit(limit)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySalesRecordDto> findByCategory(LocalDate from, LocalDate to) {
+        Range range = Range.of(from, to, MAX_AGGREGATE_DAYS);
+        LOGGER.debug("Buscando vendas por categoria de {} a {}", range.from(), range.to());
+        return orderItemRepository.sumByCategory(range.fromInstant(), range.toInstant(), OrderStatus.CANCELED);
+    }
+
+    private record Range(LocalDate from, LocalDate to) {
+
+        static Range of(LocalDate from, LocalDate to, int maxDays) {
+            LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC).plusDays(1);
+            LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS);
+            if (!start.isBefore(end)) {
+                throw new InvalidRequestException("Intervalo inválido: 'from' deve ser anterior a 'to'.");
+            }
+            if (ChronoUnit.DAYS.between(start, end) > maxDays) {
+                throw new InvalidRequestException("Intervalo maior que " + maxDays + " dias; use a série diária.");
+            }
+            return new Range(start, end);
+        }
+
+        Instant fromInstant() {
+            return from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        Instant toInstant() {
+            return to.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+    }
+}
@@ -1,68 +1,192 @@
 package com.lorenzozagallo.jpa.services;
 
+import com.lorenzozagallo.jpa.config.CacheConfig;
 import com.lorenzozagallo.jpa.dtos.CategoryRecordDto;
+import com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto;
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
+import com.lorenzozagallo.jpa.dtos.ProductSummaryRecordDto;
 import com.lorenzozagallo.jpa.models.Category;
 import com.lorenzozagallo.jpa.repositories.CategoryRepository;
+import com.lorenzozagallo.jpa.repositories.ProductPageRepository.SortKey;
+import com.lorenzozagallo.jpa.repositories.ProductRepository;
+import com.lorenzozagallo.jpa.services.cache.CollectionVersion;
 import com.lorenzozagallo.jpa.services.exceptions.DatabaseException;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidCursorException;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidRequestException;
 import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
+import jakarta.persistence.EntityManager;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Locale;
 
 @Service
 public class CategoryService {
 
-    private static final Logger LOGGER = Logger.getLogger(CategoryService.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(CategoryService.class);
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final EntityManager entityManager;
+    private final CollectionVersion collectionVersion;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository,
+            ProductService productService, EntityManager entityManager,
+            @Value("${workshop.cache.collection-version-ttl:5s}") Duration collectionVersionTtl) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.entityManager = entityManager;
+        this.collectionVersion = new CollectionVersion(categoryRepository::findCollectionVersion,
+                collectionVersionTtl);
     }
 
-    public List<Category> findAll() {
-        LOGGER.info("Buscando todas as categorias");
-        return categoryRepository.findAll();
+    // Categorias vão para o cache desligadas da sessão (com open-in-view ela vive até o fim da requisição);
+    // a versão da coleção entra na chave, como em ProductService.findAll
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_PAGES, key = "#version.eTag() + ':' + #after + ':' + #limit")
+    public CursorPageRecordDto<Category> findAll(CollectionVersionRecordDto version, String after, Integer limit) {
+        LOGGER.debug("Buscando categorias após o cursor: {}", after);
+        int pageSize = Cursor.limit(limit);
+        List<Category> rows = categoryRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decodeId(after),
+                Cursor.fetchLimit(pageSize));
+        rows.forEach(entityManager::detach);
+        return Cursor.page(rows, pageSize, category -> Cursor.encode(category.getId()));
     }
 
+    // Produtos da categoria por keyset em (campo, id), sem passar por Category.products. O cursor leva o
+    // valor do campo e o id da última linha; a existência da categoria só é consultada se a página vier vazia.
+    @Transactional(readOnly = true)
+    public CursorPageRecordDto<ProductSummaryRecordDto> findProducts(Long id, String sort, String direction,
+            String after, Integer limit) {
+        LOGGER.debug("Buscando produtos da categoria {} por {} {} após o cursor: {}", id, sort, direction, after);
+        SortKey sortKey = parseSortKey(sort);
+        boolean descending = parseDescending(direction);
+        int pageSize = Cursor.limit(limit);
+        Object afterValue = null;
+        Long afterId = null;
+        if (!Cursor.isFirstPage(after)) {
+            String[] keys = Cursor.decode(after, 2);
+            afterValue = sortKey == SortKey.PRICE ? parseDouble(keys[0], after) : keys[0];
+            afterId = Cursor.parseLong(keys[1], after);
+        }
+        List<ProductSummaryRecordDto> rows = productRepository.findByCategoryAfter(id, sortKey, descending,
+                afterValue, afterId, pageSize + 1);
+        if (rows.isEmpty() && !categoryRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Categoria não encontrada para o ID: " + id);
+        }
+        return Cursor.page(rows, pageSize, product -> Cursor.encode(
+                sortKey == SortKey.PRICE ? product.price() : product.name(), product.id()));
+    }
+
+    // Versão da listagem para GET condicional: contador em memória, sem consulta ao banco
+    public CollectionVersionRecordDto findCollectionVersion() {
+        return collectionVersion.current();
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id")
     public Category findById(Long id) {
-        LOGGER.info("Buscando categoria com ID: " + id);
-        return categoryRepository.findById(id)
-                .orElseThrow(() -> { 
-                    LOGGER.warning("Categoria não encontrada para o ID: " + id);
-                    return new ResourceNotFoundException("Categoria não encontrada para o ID: " + id);
-                });
+        LOGGER.debug("Buscando categoria com ID: {}", id);
+        Category category = loadById(id);
+        entityManager.detach(category);
+        return category;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true)
     public Category save(CategoryRecordDto categoryRecordDto) {
-        LOGGER.info("Salvando nova categoria: " + categoryRecordDto.name());
+        LOGGER.info("Salvando nova categoria: {}", categoryRecordDto.name());
         Category category = new Category();
         category.setName(categoryRecordDto.name());
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        collectionVersion.invalidateAfterCommit();
+        return saved;
     }
 
+    // Produtos em cache carregam suas categorias, então também são invalidados
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = { CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES }, allEntries = true) })
     public void delete(Long id) {
-        LOGGER.info("Excluindo categoria com ID: " + id);
+        LOGGER.info("Excluindo categoria com ID: {}", id);
         if (!categoryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Categoria não encontrada para o ID: " + id);
         }
         try {
             categoryRepository.deleteById(id);
+            collectionVersion.invalidateAfterCommit();
+            productService.collectionChanged();
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Não é possível excluir categoria que possui produtos.");
         }
     }
 
+    // Produtos em cache carregam suas categorias, então também são invalidados
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = { CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES }, allEntries = true) })
     public Category update(Long id, CategoryRecordDto categoryRecordDto) {
-        LOGGER.info("Atualizando categoria com ID: " + id);
-        Category entity = findById(id);
+        LOGGER.info("Atualizando categoria com ID: {}", id);
+        Category entity = loadById(id);
         entity.setName(categoryRecordDto.name());
-        return categoryRepository.save(entity);
+        Category saved = categoryRepository.save(entity);
+        productRepository.touchByCategory(id, Instant.now());
+        collectionVersion.invalidateAfterCommit();
+        productService.collectionChanged();
+        return saved;
+    }
+
+    private Category loadById(Long id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> {
+                    LOGGER.warn("Categoria não encontrada para o ID: {}", id);
+                    return new ResourceNotFoundException("Categoria não encontrada para o ID: " + id);
+                });
+    }
+
+    private static SortKey parseSortKey(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return SortKey.NAME;
+        }
+        try {
+            return SortKey.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Ordenação inválida: " + sort + " (use price ou name).");
+        }
+    }
+
+    private static boolean parseDescending(String direction) {
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new InvalidRequestException("Direção inválida: " + direction + " (use asc ou desc).");
+    }
+
+    private static double parseDouble(String value, String cursor) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
     }
-}
\ No newline at end of file
+}
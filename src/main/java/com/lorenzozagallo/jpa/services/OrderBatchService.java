@@ -0,0 +1,157 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.dtos.OrderBatchResultRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderItemRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderRecordDto;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.OrderItem;
+import com.lorenzozagallo.jpa.models.Product;
+import com.lorenzozagallo.jpa.models.User;
+import com.lorenzozagallo.jpa.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class OrderBatchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderBatchService.class);
+
+    private final UserRepository userRepository;
+    private final ProductService productService;
+    private final EntityManager entityManager;
+    private final SalesRollupService salesRollupService;
+    private final int batchSize;
+
+    public OrderBatchService(UserRepository userRepository, ProductService productService,
+            EntityManager entityManager, SalesRollupService salesRollupService,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.userRepository = userRepository;
+        this.productService = productService;
+        this.entityManager = entityManager;
+        this.salesRollupService = salesRollupService;
+        this.batchSize = batchSize;
+    }
+
+    // Ingestão em lote: clientes e produtos são carregados com uma consulta cada, os registros
+    // inválidos são rejeitados individualmente e os válidos vão ao banco em batches JDBC.
+    @Transactional
+    public List<OrderBatchResultRecordDto> saveBatch(List<OrderRecordDto> dtos) {
+        LOGGER.info("Recebendo lote de {} pedidos", dtos.size());
+        Map<Long, User> clients = userRepository.findAllById(collectClientIds(dtos)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Product> products = productService.findExistingByIds(collectProductIds(dtos));
+
+        List<OrderBatchResultRecordDto> results = new ArrayList<>(dtos.size());
+        List<Order> pending = new ArrayList<>(batchSize);
+        List<Integer> pendingIndexes = new ArrayList<>(batchSize);
+        for (int i = 0; i < dtos.size(); i++) {
+            OrderRecordDto dto = dtos.get(i);
+            String error = validate(dto, clients, products);
+            if (error != null) {
+                results.add(OrderBatchResultRecordDto.rejected(i, error));
+                continue;
+            }
+            Order order = toOrder(dto, clients, products);
+            entityManager.persist(order);
+            pending.add(order);
+            pendingIndexes.add(i);
+            if (pending.size() == batchSize) {
+                flush(pending, pendingIndexes, results);
+            }
+        }
+        flush(pending, pendingIndexes, results);
+        salesRollupService.recordOrders(results.stream()
+                .filter(result -> result.orderId() != null)
+                .map(OrderBatchResultRecordDto::orderId)
+                .toList());
+        results.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        return results;
+    }
+
+    // Envia os INSERTs acumulados e libera o contexto de persistência para manter a memória constante
+    private void flush(List<Order> pending, List<Integer> pendingIndexes, List<OrderBatchResultRecordDto> results) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (int i = 0; i < pending.size(); i++) {
+            results.add(OrderBatchResultRecordDto.created(pendingIndexes.get(i), pending.get(i).getId()));
+        }
+        entityManager.clear();
+        pending.clear();
+        pendingIndexes.clear();
+    }
+
+    private String validate(OrderRecordDto dto, Map<Long, User> clients, Map<Long, Product> products) {
+        if (dto == null) {
+            return "Registro vazio.";
+        }
+        if (dto.clientId() == null || !clients.containsKey(dto.clientId())) {
+            return "Usuário não encontrado para o ID: " + dto.clientId();
+        }
+        if (dto.items() == null || dto.items().isEmpty()) {
+            return "Pedido sem itens.";
+        }
+        Set<Long> seen = new HashSet<>();
+        for (OrderItemRecordDto item : dto.items()) {
+            if (item == null) {
+                return "Item vazio no pedido.";
+            }
+            if (item.productID() == null || !products.containsKey(item.productID())) {
+                return "Produto não encontrado para o ID: " + item.productID();
+            }
+            if (!seen.add(item.productID())) {
+                return "Produto repetido no pedido: " + item.productID();
+            }
+            if (item.quantity() == null || item.quantity() <= 0 || item.price() == null) {
+                return "Quantidade ou preço inválido para o produto ID: " + item.productID();
+            }
+        }
+        return null;
+    }
+
+    private Order toOrder(OrderRecordDto dto, Map<Long, User> clients, Map<Long, Product> products) {
+        Order order = new Order();
+        order.setMoment(dto.moment() != null ? dto.moment().toInstant() : Instant.now());
+        order.setOrderStatus(dto.orderStatus());
+        order.setClient(clients.get(dto.clientId()));
+        for (OrderItemRecordDto item : dto.items()) {
+            order.getItems().add(new OrderItem(order, products.get(item.productID()), item.quantity(), item.price()));
+        }
+        order.recalculateTotals();
+        return order;
+    }
+
+    private static Set<Long> collectClientIds(List<OrderRecordDto> dtos) {
+        return dtos.stream()
+                .filter(Objects::nonNull)
+                .map(OrderRecordDto::clientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<Long> collectProductIds(List<OrderRecordDto> dtos) {
+        return dtos.stream()
+                .filter(dto -> dto != null && dto.items() != null)
+                .flatMap(dto -> dto.items().stream())
+                .filter(Objects::nonNull)
+                .map(OrderItemRecordDto::productID)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,74 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.repositories.OrderRepository;
+import jakarta.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class OrderExportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderExportService.class);
+
+    // Pedidos mantidos no contexto de persistência antes de limpá-lo
+    private static final int CHUNK_SIZE = OrderRepository.STREAM_FETCH_SIZE;
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter orderWriter;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(OrderRepository orderRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        // flush só ao fim de cada bloco, não a cada pedido
+        this.orderWriter = objectMapper.writerFor(Order.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Escreve um pedido (com itens) por linha em NDJSON. A memória fica limitada a um bloco de
+    // CHUNK_SIZE pedidos: o cursor é lido aos poucos e o contexto é limpo após cada bloco.
+    // Serializar o bloco inteiro de uma vez deixa o batch fetching carregar os itens em lotes.
+    @Transactional(readOnly = true)
+    public long exportTo(OutputStream out) throws IOException {
+        LOGGER.info("Exportando pedidos em NDJSON");
+        long count = 0;
+        List<Order> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<Order> orders = orderRepository.streamAll();
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    for (Order order : chunk) {
+                        orderWriter.writeValue(generator, order);
+                        generator.writeRaw('\n');
+                    }
+                    count += chunk.size();
+                    chunk.clear();
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        LOGGER.info("Exportação concluída: {} pedidos", count);
+        return count;
+    }
+}
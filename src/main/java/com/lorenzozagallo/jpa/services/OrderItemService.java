@@ -1,45 +1,64 @@
 package com.lorenzozagallo.jpa.services;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
 import com.lorenzozagallo.jpa.models.OrderItem;
 import com.lorenzozagallo.jpa.models.pk.OrderItemPK;
 import com.lorenzozagallo.jpa.repositories.OrderItemRepository;
+import com.lorenzozagallo.jpa.repositories.OrderRepository;
 import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Logger;
 
 @Service
 public class OrderItemService {
 
-    private static final Logger LOGGER = Logger.getLogger(OrderItemService.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderItemService.class);
 
     private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
 
-    public OrderItemService(OrderItemRepository orderItemRepository) {
+    public OrderItemService(OrderItemRepository orderItemRepository, OrderRepository orderRepository) {
         this.orderItemRepository = orderItemRepository;
+        this.orderRepository = orderRepository;
     }
 
-    public List<OrderItem> findAll() {
-        LOGGER.info("Buscando todos os itens do pedido");
-        return orderItemRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageRecordDto<OrderItem> findAll(String after, Integer limit) {
+        LOGGER.debug("Buscando itens do pedido após o cursor: {}", after);
+        int pageSize = Cursor.limit(limit);
+        long orderId = 0L;
+        long productId = 0L;
+        if (!Cursor.isFirstPage(after)) {
+            String[] keys = Cursor.decode(after, 2);
+            orderId = Cursor.parseLong(keys[0], after);
+            productId = Cursor.parseLong(keys[1], after);
+        }
+        List<OrderItem> rows = orderItemRepository.findPageAfter(orderId, productId, Cursor.fetchPage(pageSize));
+        return Cursor.page(rows, pageSize,
+                item -> Cursor.encode(item.getId().getOrderId(), item.getId().getProductId()));
     }
 
+    @Transactional(readOnly = true)
     public Optional<OrderItem> findById(OrderItemPK id) {
-        LOGGER.info("Buscando item do pedido com ID: " + id);
+        LOGGER.debug("Buscando item do pedido com ID: {}", id);
         return orderItemRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public OrderItem findByOrderAndProduct(Long order, Long product) {
-        LOGGER.info("Buscando item do pedido para Order ID: " + order + " e Product ID: " + product);
+        LOGGER.debug("Buscando item do pedido para Order ID: {} e Product ID: {}", order, product);
         OrderItemPK id = new OrderItemPK(order, product);
         return orderItemRepository.findById(id)
                 .orElseThrow(() -> {
-                    LOGGER.warning("Item do pedido não encontrado para o ID: " + id);
+                    LOGGER.warn("Item do pedido não encontrado para o ID: {}", id);
                     return new ResourceNotFoundException("Item do pedido não encontrado para o ID: " + id);
                 });
     }
@@ -48,7 +67,13 @@ public class OrderItemService {
     public OrderItem save(OrderItem orderItem) {
         LOGGER.info("Salvando item do pedido");
         try {
-            return orderItemRepository.save(orderItem);
+            // Delta sobre o total persistido do pedido: item novo soma tudo, item existente só a diferença
+            Optional<OrderItem> existing = orderItemRepository.findById(orderItem.getId());
+            double previousSubTotal = existing.map(OrderItem::getSubTotal).orElse(0.0);
+            OrderItem saved = orderItemRepository.save(orderItem);
+            orderRepository.addToTotals(saved.getId().getOrderId(), saved.getSubTotal() - previousSubTotal,
+                    existing.isPresent() ? 0 : 1);
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Erro ao salvar o item do pedido: " + e.getMessage());
         }
@@ -56,12 +81,12 @@ public class OrderItemService {
 
     @Transactional
     public void deleteById(OrderItemPK id) {
-        LOGGER.info("Excluindo item do pedido com ID: " + id);
-        if (!orderItemRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Item do pedido não encontrado para exclusão.");
-        }
+        LOGGER.info("Excluindo item do pedido com ID: {}", id);
+        OrderItem item = orderItemRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Item do pedido não encontrado para exclusão."));
         try {
-            orderItemRepository.deleteById(id);
+            orderItemRepository.delete(item);
+            orderRepository.addToTotals(id.getOrderId(), -item.getSubTotal(), -1);
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Erro ao excluir o item do pedido: " + e.getMessage());
         }
@@ -1,60 +1,108 @@
 package com.lorenzozagallo.jpa.services;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
 import com.lorenzozagallo.jpa.dtos.OrderItemRecordDto;
 import com.lorenzozagallo.jpa.dtos.OrderRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderSummaryRecordDto;
 import com.lorenzozagallo.jpa.models.Order;
 import com.lorenzozagallo.jpa.models.OrderItem;
 import com.lorenzozagallo.jpa.models.Product;
 import com.lorenzozagallo.jpa.models.User;
+import com.lorenzozagallo.jpa.repositories.OrderItemRepository;
 import com.lorenzozagallo.jpa.repositories.OrderRepository;
 import com.lorenzozagallo.jpa.repositories.UserRepository;
+import com.lorenzozagallo.jpa.services.exceptions.ConcurrencyConflictException;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidRequestException;
 import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class OrderService {
 
-    private static final Logger LOGGER = Logger.getLogger(OrderService.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderService.class);
+
+    private static final int MAX_ATTEMPTS = 5;
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
     private final ProductService productService;
+    private final SalesRollupService salesRollupService;
+    private final TransactionTemplate transactionTemplate;
 
-    public OrderService(OrderRepository orderRepository, UserRepository userRepository, ProductService productService) {
+    public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+            UserRepository userRepository, ProductService productService, SalesRollupService salesRollupService,
+            PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
         this.userRepository = userRepository;
         this.productService = productService;
+        this.salesRollupService = salesRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageRecordDto<OrderSummaryRecordDto> findAll(String after, Integer limit) {
+        LOGGER.debug("Buscando pedidos após o cursor: {}", after);
+        int pageSize = Cursor.limit(limit);
+        List<OrderSummaryRecordDto> rows = orderRepository.findSummariesAfter(Cursor.decodeId(after),
+                Cursor.fetchPage(pageSize));
+        return Cursor.page(rows, pageSize, order -> Cursor.encode(order.id()));
     }
 
-    public List<Order> findAll() {
-        LOGGER.info("Buscando todos os pedidos");
-        return orderRepository.findAll();
+    // Cursor = (moment, id) do último pedido da página; a existência do cliente só é consultada se vier vazia
+    @Transactional(readOnly = true)
+    public CursorPageRecordDto<OrderSummaryRecordDto> findByClient(Long clientId, String after, Integer limit) {
+        LOGGER.debug("Buscando pedidos do cliente {} após o cursor: {}", clientId, after);
+        int pageSize = Cursor.limit(limit);
+        List<OrderSummaryRecordDto> rows;
+        if (Cursor.isFirstPage(after)) {
+            rows = orderRepository.findClientSummaries(clientId, Cursor.fetchPage(pageSize));
+        } else {
+            String[] keys = Cursor.decode(after, 2);
+            rows = orderRepository.findClientSummariesBefore(clientId, Cursor.parseInstant(keys[0], after),
+                    Cursor.parseLong(keys[1], after), Cursor.fetchPage(pageSize));
+        }
+        if (rows.isEmpty() && !userRepository.existsById(clientId)) {
+            throw new ResourceNotFoundException("Usuário não encontrado para o ID: " + clientId);
+        }
+        return Cursor.page(rows, pageSize, order -> Cursor.encode(order.moment(), order.id()));
     }
 
+    @Transactional(readOnly = true)
     public Order findById(Long id) {
-        LOGGER.info("Buscando pedido com ID: " + id);
-        return orderRepository.findById(id)
+        LOGGER.debug("Buscando pedido com ID: {}", id);
+        return orderRepository.findDetailById(id)
                 .orElseThrow(() -> { 
-                    LOGGER.warning("Pedido não encontrado para o ID: " + id);
+                    LOGGER.warn("Pedido não encontrado para o ID: {}", id);
                     return new ResourceNotFoundException("Pedido não encontrado para o ID: " + id);
                 });
     }
 
     @Transactional
     public Order save(OrderRecordDto orderRecordDto) {
-        LOGGER.info("Salvando novo pedido para o cliente ID: " + orderRecordDto.clientId());
+        LOGGER.info("Salvando novo pedido para o cliente ID: {}", orderRecordDto.clientId());
         try {
             // Busca o usuário (Client)
             User client = userRepository.findById(orderRecordDto.clientId())
                     .orElseThrow(() -> {
-                        LOGGER.warning("Usuário não encontrado para o ID: " + orderRecordDto.clientId());
+                        LOGGER.warn("Usuário não encontrado para o ID: {}", orderRecordDto.clientId());
                         return new ResourceNotFoundException("Usuário não encontrado para o ID: " + orderRecordDto.clientId());
                     });
 
@@ -64,16 +112,18 @@ public class OrderService {
             order.setOrderStatus(orderRecordDto.orderStatus());
             order.setClient(client);
 
-            // Processa os Itens
+            // Processa os Itens: todos os produtos resolvidos em uma única consulta
+            Map<Long, Product> products = resolveProducts(orderRecordDto.items());
             List<OrderItem> orderItems = orderRecordDto.items().stream()
-                    .map(dto -> {
-                        Product product = productService.findById(dto.productID());
-                        return new OrderItem(order, product, dto.quantity(), dto.price());
-                    }).toList();
+                    .map(dto -> new OrderItem(order, products.get(dto.productID()), dto.quantity(), dto.price()))
+                    .toList();
 
             order.getItems().addAll(orderItems);
+            order.recalculateTotals();
 
-            return orderRepository.save(order);
+            Order saved = orderRepository.save(order);
+            salesRollupService.recordOrders(List.of(saved.getId()));
+            return saved;
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Erro de integridade ao salvar o pedido.");
         }
@@ -81,11 +131,12 @@ public class OrderService {
 
     @Transactional
     public void delete(Long id) {
-        LOGGER.info("Excluindo pedido com ID: " + id);
+        LOGGER.info("Excluindo pedido com ID: {}", id);
         if (!orderRepository.existsById(id)) {
             throw new ResourceNotFoundException("Pedido não encontrado para o ID: " + id);
         }
         try {
+            salesRollupService.removeOrder(id);
             orderRepository.deleteById(id);
         } catch (DataIntegrityViolationException e) {
             throw new RuntimeException("Não é possível excluir um pedido que possui itens ou pagamentos associados.");
@@ -94,7 +145,7 @@ public class OrderService {
 
     @Transactional
     public Order update(Long id, OrderRecordDto dto) {
-        LOGGER.info("Atualizando pedido com ID: " + id);
+        LOGGER.info("Atualizando pedido com ID: {}", id);
         Order entity = findById(id);
         updateData(entity, dto);
         return orderRepository.save(entity);
@@ -109,15 +160,81 @@ public class OrderService {
     }
 
     // Método EXTRA que você queria (Adicionar item em pedido existente)
-    @Transactional
+    // Sem carregar o pedido: o item é mesclado por MERGE (soma a quantidade se já existir) e os totais são
+    // recalculados no mesmo UPDATE que avança a versão. Cada tentativa é uma transação própria; só a colisão
+    // na PK de order_items (dois MERGEs inserindo o mesmo item) e deadlocks são repetidos, até MAX_ATTEMPTS
+    // vezes. Qualquer outra violação (pedido ou produto excluído no meio do caminho) não melhora repetindo.
     public Order addItemToOrder(Long orderId, OrderItemRecordDto itemDto) {
-        LOGGER.info("Adicionando item ao pedido ID: " + orderId);
-        Order order = findById(orderId); // Já lança erro se não achar
-        Product product = productService.findById(itemDto.productID()); // Já lança erro se não achar
+        LOGGER.info("Adicionando item ao pedido ID: {}", orderId);
+        if (itemDto.quantity() == null || itemDto.quantity() <= 0) {
+            throw new InvalidRequestException("Quantidade inválida para o produto ID: " + itemDto.productID());
+        }
+        if (!orderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException("Pedido não encontrado para o ID: " + orderId);
+        }
+        Product product = resolveProducts(List.of(itemDto)).get(itemDto.productID()); // Já lança erro se não achar
+        double price = itemDto.price() != null ? itemDto.price() : product.getPrice();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    orderItemRepository.mergeQuantity(orderId, product.getId(), itemDto.quantity(), price);
+                    orderRepository.recomputeTotalsOf(orderId);
+                });
+                break;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (e instanceof DataIntegrityViolationException violation && !isDuplicateKey(violation)) {
+                    throw missingReference(orderId, product.getId(), violation);
+                }
+                if (attempt == MAX_ATTEMPTS) {
+                    LOGGER.warn("Inclusão de item no pedido {} desistiu após {} tentativas", orderId, attempt);
+                    throw new ConcurrencyConflictException(
+                            "Pedido " + orderId + " em alteração concorrente; tente novamente.");
+                }
+                LOGGER.debug("Conflito ao incluir item no pedido {} (tentativa {}): {}", orderId, attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+        // releitura numa transação de escrita: vai ao primário, que já tem o item (a réplica pode estar atrasada)
+        return transactionTemplate.execute(status -> findById(orderId));
+    }
 
-        OrderItem newItem = new OrderItem(order, product, itemDto.quantity(), itemDto.price());
-        order.getItems().add(newItem);
+    // Espera crescente com jitter, para que as transações que colidiram não tentem de novo juntas
+    private static void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyConflictException("Inclusão de item interrompida.");
+        }
+    }
+
+    // O MERGE só insere em order_items, e a única chave única ali é a PK (order_id, product_id)
+    private static boolean isDuplicateKey(RuntimeException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
+
+    // Violação de FK: o pedido ou o produto foi excluído depois da checagem inicial
+    private RuntimeException missingReference(Long orderId, Long productId, DataIntegrityViolationException e) {
+        if (!orderRepository.existsById(orderId)) {
+            return new ResourceNotFoundException("Pedido não encontrado para o ID: " + orderId);
+        }
+        if (productService.findExistingByIds(List.of(productId)).isEmpty()) {
+            return new ResourceNotFoundException("Produto não encontrado para o ID: " + productId);
+        }
+        return e;
+    }
 
-        return orderRepository.save(order);
+    private Map<Long, Product> resolveProducts(List<OrderItemRecordDto> items) {
+        List<Long> productIds = items.stream().map(OrderItemRecordDto::productID).toList();
+        return productService.findAllByIds(productIds);
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.repositories.OrderRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class OrderTotalsRepairService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderTotalsRepairService.class);
+
+    private final OrderRepository orderRepository;
+    private final int chunkSize;
+
+    public OrderTotalsRepairService(OrderRepository orderRepository,
+            @Value("${workshop.orders.totals-repair.chunk-size:1000}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    // Recalcula total/itemCount de todos os pedidos em blocos de IDs; cada bloco é um UPDATE
+    // set-based em sua própria transação, então o job não segura locks na tabela inteira.
+    @Scheduled(cron = "${workshop.orders.totals-repair.cron:-}")
+    public long repairAll() {
+        LOGGER.info("Iniciando reparo dos totais de pedidos");
+        long after = 0L;
+        long repaired = 0L;
+        List<Long> ids = orderRepository.findIdsAfter(after, PageRequest.ofSize(chunkSize));
+        while (!ids.isEmpty()) {
+            Long last = ids.get(ids.size() - 1);
+            repaired += orderRepository.recomputeTotals(ids.get(0), last);
+            after = last;
+            ids = orderRepository.findIdsAfter(after, PageRequest.ofSize(chunkSize));
+        }
+        LOGGER.info("Reparo concluído: {} pedidos recalculados", repaired);
+        return repaired;
+    }
+}
@@ -0,0 +1,227 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lorenzozagallo.jpa.dtos.PaymentIntakeRecordDto;
+import com.lorenzozagallo.jpa.dtos.PaymentRecordDto;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.Payment;
+import com.lorenzozagallo.jpa.repositories.OrderRepository;
+import com.lorenzozagallo.jpa.repositories.PaymentRepository;
+import com.lorenzozagallo.jpa.services.exceptions.IntakeQueueFullException;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidRequestException;
+import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Ingestão assíncrona de pagamentos: o callback só entra numa fila limitada e recebe um trackingId;
+// workers gravam em micro-lotes (uma consulta de pedidos, uma de pagamentos existentes e INSERTs em batch
+// numa única transação). Fila cheia é recusada na hora (503) em vez de acumular memória.
+@Service
+public class PaymentIntakeService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentIntakeService.class);
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final EntityManager entityManager;
+    private final SalesRollupService salesRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PaymentIntake> queue;
+    private final Cache<String, PaymentIntakeRecordDto> statuses;
+    private final int workers;
+    private final int batchSize;
+    private final long lingerMillis;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public PaymentIntakeService(OrderRepository orderRepository, PaymentRepository paymentRepository,
+            EntityManager entityManager, SalesRollupService salesRollupService,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${workshop.payments.intake.queue-capacity:10000}") int queueCapacity,
+            @Value("${workshop.payments.intake.workers:2}") int workers,
+            @Value("${workshop.payments.intake.batch-size:200}") int batchSize,
+            @Value("${workshop.payments.intake.linger-ms:20}") long lingerMillis,
+            @Value("${workshop.payments.intake.status-retention:1h}") Duration statusRetention) {
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.entityManager = entityManager;
+        this.salesRollupService = salesRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .maximumSize(queueCapacity * 10L)
+                .build();
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        Gauge.builder("workshop.payments.intake.queue", queue, BlockingQueue::size)
+                .description("Pagamentos aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("payment-intake-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::drainLoop);
+        }
+    }
+
+    // Para os workers e grava o que ainda estiver na fila antes de o contexto fechar o DataSource
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        List<PaymentIntake> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            LOGGER.info("Gravando {} pagamentos pendentes no desligamento", remaining.size());
+            record(remaining);
+        }
+    }
+
+    public PaymentIntakeRecordDto submit(PaymentRecordDto dto) {
+        if (dto.orderId() == null) {
+            throw new InvalidRequestException("Pagamento sem pedido associado.");
+        }
+        PaymentIntake intake = new PaymentIntake(UUID.randomUUID().toString(), dto.orderId(),
+                dto.moment() != null ? dto.moment() : new Date());
+        PaymentIntakeRecordDto status = PaymentIntakeRecordDto.queued(intake.trackingId(), intake.orderId());
+        statuses.put(intake.trackingId(), status);
+        if (!queue.offer(intake)) {
+            statuses.invalidate(intake.trackingId());
+            LOGGER.warn("Fila de pagamentos cheia; recusando pagamento do pedido {}", dto.orderId());
+            throw new IntakeQueueFullException("Fila de pagamentos cheia; tente novamente em instantes.");
+        }
+        return status;
+    }
+
+    public PaymentIntakeRecordDto findStatus(String trackingId) {
+        PaymentIntakeRecordDto status = statuses.getIfPresent(trackingId);
+        if (status == null) {
+            throw new ResourceNotFoundException("Pagamento não encontrado para o trackingId: " + trackingId);
+        }
+        return status;
+    }
+
+    // Bloqueia até chegar um pagamento e espera até lingerMillis para completar o lote
+    private void drainLoop() {
+        List<PaymentIntake> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    PaymentIntake next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                record(batch);
+            } catch (InterruptedException e) {
+                // o que já saiu da fila ainda precisa ser gravado; a interrupção é restaurada depois
+                record(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Falha inesperada no worker de pagamentos", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void record(List<PaymentIntake> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            markRecorded(transactionTemplate.execute(status -> persist(batch)));
+        } catch (RuntimeException e) {
+            // Um registro ruim não derruba o lote: regrava um a um para isolar o culpado
+            LOGGER.warn("Lote de {} pagamentos falhou ({}); gravando individualmente", batch.size(), e.getMessage());
+            for (PaymentIntake intake : batch) {
+                try {
+                    markRecorded(transactionTemplate.execute(status -> persist(List.of(intake))));
+                } catch (RuntimeException single) {
+                    reject(intake, "Erro ao salvar o pagamento: " + single.getMessage());
+                }
+            }
+        }
+    }
+
+    // Devolve os pagamentos gravados; o status RECORDED só é publicado depois do commit
+    private List<PaymentIntake> persist(List<PaymentIntake> batch) {
+        Set<Long> orderIds = batch.stream().map(PaymentIntake::orderId).collect(Collectors.toSet());
+        Map<Long, Order> orders = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        Set<Long> paid = new HashSet<>();
+        paymentRepository.findAllById(orderIds).forEach(payment -> paid.add(payment.getId()));
+
+        List<PaymentIntake> recorded = new ArrayList<>(batch.size());
+        for (PaymentIntake intake : batch) {
+            Order order = orders.get(intake.orderId());
+            if (order == null) {
+                reject(intake, "Pedido não encontrado para o ID: " + intake.orderId());
+            } else if (!paid.add(intake.orderId())) {
+                reject(intake, "Pedido " + intake.orderId() + " já possui pagamento.");
+            } else {
+                Payment payment = new Payment();
+                payment.setMoment(intake.moment());
+                payment.setOrder(order);
+                entityManager.persist(payment);
+                recorded.add(intake);
+            }
+        }
+        entityManager.flush();
+        salesRollupService.recordPayments(recorded.stream().map(PaymentIntake::orderId).toList());
+        return recorded;
+    }
+
+    private void markRecorded(List<PaymentIntake> recorded) {
+        recorded.forEach(intake -> statuses.asMap().computeIfPresent(intake.trackingId(), (id, s) -> s.recorded()));
+    }
+
+    private void reject(PaymentIntake intake, String message) {
+        statuses.asMap().computeIfPresent(intake.trackingId(), (id, s) -> s.rejected(message));
+    }
+
+    private record PaymentIntake(String trackingId, Long orderId, Date moment) {
+    }
+}
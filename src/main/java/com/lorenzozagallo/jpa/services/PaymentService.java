@@ -1,5 +1,6 @@
 package com.lorenzozagallo.jpa.services;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
 import com.lorenzozagallo.jpa.dtos.PaymentRecordDto;
 import com.lorenzozagallo.jpa.models.Order;
 import com.lorenzozagallo.jpa.models.Payment;
@@ -7,72 +8,85 @@ import com.lorenzozagallo.jpa.repositories.OrderRepository;
 import com.lorenzozagallo.jpa.repositories.PaymentRepository;
 import com.lorenzozagallo.jpa.services.exceptions.DatabaseException;
 import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.logging.Logger;
 
 @Service
 public class PaymentService {
 
-    private static final Logger LOGGER = Logger.getLogger(PaymentService.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(PaymentService.class);
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final SalesRollupService salesRollupService;
 
-    public PaymentService(PaymentRepository paymentRepository, OrderRepository orderRepository) {
+    public PaymentService(PaymentRepository paymentRepository, OrderRepository orderRepository,
+            SalesRollupService salesRollupService) {
         this.paymentRepository = paymentRepository;
         this.orderRepository = orderRepository;
+        this.salesRollupService = salesRollupService;
     }
 
-    public List<Payment> findAll() {
-        LOGGER.info("Buscando todos os pagamentos");
-        return paymentRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageRecordDto<Payment> findAll(String after, Integer limit) {
+        LOGGER.debug("Buscando pagamentos após o cursor: {}", after);
+        int pageSize = Cursor.limit(limit);
+        List<Payment> rows = paymentRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decodeId(after),
+                Cursor.fetchLimit(pageSize));
+        return Cursor.page(rows, pageSize, payment -> Cursor.encode(payment.getId()));
     }
 
+    @Transactional(readOnly = true)
     public Payment findById(Long id) {
-        LOGGER.info("Buscando pagamento com ID: " + id);
+        LOGGER.debug("Buscando pagamento com ID: {}", id);
         return paymentRepository.findById(id)
                 .orElseThrow(() -> {
-                        LOGGER.warning("Pagamento não encontrado para o ID: " + id);
+                        LOGGER.warn("Pagamento não encontrado para o ID: {}", id);
                         throw new ResourceNotFoundException("Pagamento não encontrado para o ID: " + id);
                     });
     }
 
     @Transactional
     public Payment createPayment(PaymentRecordDto paymentRecordDto) {
-        LOGGER.info("Criando pagamento para o pedido ID: " + paymentRecordDto.orderId());
+        LOGGER.info("Criando pagamento para o pedido ID: {}", paymentRecordDto.orderId());
+        Order order = orderRepository.findById(paymentRecordDto.orderId())
+                .orElseThrow(() -> {
+                    LOGGER.warn("Pedido não encontrado para o ID: {}", paymentRecordDto.orderId());
+                    return new ResourceNotFoundException("Pedido não encontrado para o ID: " + paymentRecordDto.orderId());
+                });
         try {
-            Order order = orderRepository.findById(paymentRecordDto.orderId())
-                    .orElseThrow(() -> {
-                        LOGGER.warning("Pedido não encontrado para o ID: " + paymentRecordDto.orderId());
-                        return new RuntimeException("Order not found");
-                    });
-
             // Cria o Payment
             Payment payment = new Payment();
             payment.setMoment(paymentRecordDto.moment());
             payment.setOrder(order); // associar o Order ao Payment
 
             // salvar o Payment no banco de dados
-            return paymentRepository.save(payment);
-        } catch (Exception e) {
+            Payment saved = paymentRepository.save(payment);
+            salesRollupService.recordPayments(List.of(order.getId()));
+            return saved;
+        } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Erro ao salvar o pagamento: " + e.getMessage());
         }
     }
 
     @Transactional
     public void delete(Long id) {
-        LOGGER.info("Excluindo pagamento com ID: " + id);
-        if (!paymentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Pagamento não encontrado para o ID: " + id);
-        }
+        LOGGER.info("Excluindo pagamento com ID: {}", id);
+        Payment payment = paymentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado para o ID: " + id));
         try {
-            paymentRepository.deleteById(id);
+            salesRollupService.removePayment(id);
+            // Order.payment tem cascade ALL: sem desfazer o vínculo, o flush gravaria o pagamento de novo
+            payment.getOrder().setPayment(null);
+            paymentRepository.delete(payment);
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Erro de integridade referencial ao excluir o pagamento: " + e.getMessage());
         }
@@ -80,11 +94,14 @@ public class PaymentService {
 
     @Transactional
     public Payment update(Long id, Payment payment) {
-        LOGGER.info("Atualizando pagamento com ID: " + id);
+        LOGGER.info("Atualizando pagamento com ID: {}", id);
         try {
             Payment entity = paymentRepository.getReferenceById(id);
             if (payment.getMoment() != null) {
+                // o pagamento pode mudar de dia: sai do dia antigo agora e entra no novo após o commit
+                salesRollupService.removePayment(id);
                 entity.setMoment(payment.getMoment());
+                salesRollupService.recordPayments(List.of(id));
             }
             return paymentRepository.save(entity);
         } catch (EntityNotFoundException e) {
@@ -0,0 +1,145 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.dtos.ProductSearchRecordDto;
+import com.lorenzozagallo.jpa.models.Product;
+import com.lorenzozagallo.jpa.repositories.ProductRepository;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidRequestException;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
+import com.lorenzozagallo.jpa.services.search.ProductSearchIndex;
+
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Busca de produtos sobre o índice em memória. Cada instância mantém o próprio índice: as alterações feitas
+// por ela entram após o commit, e o rebuild (na subida e, opcionalmente, por cron) traz as das demais.
+@Service
+public class ProductSearchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductSearchService.class);
+
+    private static final int DEFAULT_SUGGESTIONS = 10;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readTransaction;
+    private final int chunkSize;
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+    // Índice em construção: recebe as alterações locais para não perdê-las na troca
+    private volatile ProductSearchIndex building;
+
+    public ProductSearchService(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+            @Value("${workshop.search.rebuild.chunk-size:1000}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+    }
+
+    public List<ProductSearchRecordDto> search(String query, Long categoryId, Integer limit) {
+        LOGGER.debug("Buscando produtos por: {}", query);
+        requireText(query);
+        return toDtos(index.search(query, categoryId, Cursor.limit(limit)));
+    }
+
+    public List<ProductSearchRecordDto> suggest(String prefix, Integer limit) {
+        requireText(prefix);
+        return toDtos(index.suggest(prefix, limit != null ? Cursor.limit(limit) : DEFAULT_SUGGESTIONS));
+    }
+
+    // Chamados pelo ProductService dentro da transação; o índice só muda se o commit acontecer.
+    // O documento é montado no afterCommit: só depois do flush o @Version do produto tem o valor gravado
+    public void index(Product product) {
+        Hibernate.initialize(product.getCategories());
+        afterCommit(target -> target.put(ProductSearchIndex.Document.of(product), product.getDescription()));
+    }
+
+    public void remove(Long id) {
+        afterCommit(target -> target.remove(id));
+    }
+
+    // Monta um índice novo lendo os produtos por keyset, um bloco por transação, e troca de uma vez:
+    // durante o rebuild as buscas continuam respondendo pelo índice anterior. Um bloco lido antes de uma
+    // alteração local pode chegar ao índice novo depois dela: a versão e as exclusões guardadas descartam-no
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${workshop.search.rebuild.cron:-}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        ProductSearchIndex fresh = ProductSearchIndex.forRebuild();
+        building = fresh;
+        try {
+            long after = 0L;
+            List<Product> chunk = loadChunk(after, fresh);
+            while (!chunk.isEmpty()) {
+                after = chunk.get(chunk.size() - 1).getId();
+                chunk = loadChunk(after, fresh);
+            }
+            fresh.endRebuild();
+            index = fresh;
+        } finally {
+            building = null;
+        }
+        LOGGER.info("Índice de busca reconstruído: {} produtos em {} ms", fresh.size(),
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private List<Product> loadChunk(long after, ProductSearchIndex target) {
+        return readTransaction.execute(status -> {
+            List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(chunkSize));
+            for (Product product : products) {
+                Hibernate.initialize(product.getCategories());
+                target.put(ProductSearchIndex.Document.of(product), product.getDescription());
+            }
+            return products;
+        });
+    }
+
+    private void afterCommit(Consumer<ProductSearchIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    // Lê building antes de index: se já for null, a troca terminou e index é o índice novo
+    private void apply(Consumer<ProductSearchIndex> change) {
+        ProductSearchIndex next = building;
+        ProductSearchIndex current = index;
+        change.accept(current);
+        if (next != null && next != current) {
+            change.accept(next);
+        }
+    }
+
+    private static void requireText(String text) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidRequestException("Informe o texto da busca.");
+        }
+    }
+
+    private static List<ProductSearchRecordDto> toDtos(List<ProductSearchIndex.Hit> hits) {
+        return hits.stream()
+                .map(hit -> new ProductSearchRecordDto(hit.document().id(), hit.document().name(),
+                        hit.document().price(), hit.document().imgUrl(), hit.score()))
+                .toList();
+    }
+}
@@ -1,71 +1,197 @@
 package com.lorenzozagallo.jpa.services;
 
+import com.lorenzozagallo.jpa.config.CacheConfig;
+import com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto;
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
 import com.lorenzozagallo.jpa.dtos.ProductRecordDto;
 import com.lorenzozagallo.jpa.models.Product;
 import com.lorenzozagallo.jpa.repositories.ProductRepository;
 import com.lorenzozagallo.jpa.services.exceptions.DatabaseException;
+import com.lorenzozagallo.jpa.services.cache.CollectionVersion;
 import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
+import jakarta.persistence.EntityManager;
 
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ProductService {
 
-    private static final Logger LOGGER = Logger.getLogger(ProductService.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductService.class);
 
     private final ProductRepository productRepository;
+    private final Cache productCache;
+    private final ProductSearchService productSearchService;
+    private final EntityManager entityManager;
+    private final CollectionVersion collectionVersion;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, CacheManager cacheManager,
+            ProductSearchService productSearchService, EntityManager entityManager,
+            @Value("${workshop.cache.collection-version-ttl:5s}") Duration collectionVersionTtl) {
         this.productRepository = productRepository;
+        this.productCache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        this.productSearchService = productSearchService;
+        this.entityManager = entityManager;
+        this.collectionVersion = new CollectionVersion(productRepository::findCollectionVersion, collectionVersionTtl);
     }
 
-    public List<Product> findAll() {
-        return productRepository.findAll();
+    // Os produtos vão para o cache já com as categorias carregadas e desligados da sessão: com open-in-view a
+    // sessão vive até o fim da requisição, e o cache é lido por outras threads. A versão da coleção entra na
+    // chave: uma escrita em qualquer instância muda a versão e, com ela, a página servida
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, key = "#version.eTag() + ':' + #after + ':' + #limit")
+    public CursorPageRecordDto<Product> findAll(CollectionVersionRecordDto version, String after, Integer limit) {
+        int pageSize = Cursor.limit(limit);
+        List<Product> rows = productRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decodeId(after),
+                Cursor.fetchLimit(pageSize));
+        rows.forEach(this::detachForCache);
+        return Cursor.page(rows, pageSize, product -> Cursor.encode(product.getId()));
     }
 
+    // Versão da listagem para GET condicional: agregado do banco, guardado por um TTL curto (CollectionVersion)
+    public CollectionVersionRecordDto findCollectionVersion() {
+        return collectionVersion.current();
+    }
+
+    // Escritas que mudam o JSON dos produtos sem passar por este service (ex.: renomear uma categoria)
+    public void collectionChanged() {
+        collectionVersion.invalidateAfterCommit();
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public Product findById(Long id) {
-        LOGGER.info("Buscando produto com ID: " + id);
-        return productRepository.findById(id)
+        LOGGER.debug("Buscando produto com ID: {}", id);
+        Product product = productRepository.findById(id)
                 .orElseThrow(() -> {
-                    LOGGER.warning("Produto não encontrado para o ID: " + id);
+                    LOGGER.warn("Produto não encontrado para o ID: {}", id);
                     return new ResourceNotFoundException("Produto não encontrado para o ID: " + id);
                 });
+        detachForCache(product);
+        return product;
+    }
+
+    // Resolve vários produtos com um único SELECT ... IN e reporta todos os IDs ausentes de uma vez
+    @Transactional(readOnly = true)
+    public Map<Long, Product> findAllByIds(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, Product> products = findExistingByIds(distinctIds);
+        if (products.size() < distinctIds.size()) {
+            List<Long> missing = distinctIds.stream().filter(id -> !products.containsKey(id)).toList();
+            LOGGER.warn("Produtos não encontrados para os IDs: {}", missing);
+            throw new ResourceNotFoundException("Produtos não encontrados para os IDs: " + missing);
+        }
+        return products;
     }
 
+    // Mesma busca em lote, sem exceção: quem chama decide o que fazer com os ausentes.
+    // Só os IDs que não estão no cache vão ao banco. O cache só recebe o que foi carregado numa transação
+    // read-only própria: dentro da transação de escrita de quem chama, as entidades pertencem àquela sessão.
+    @Transactional(readOnly = true)
+    public Map<Long, Product> findExistingByIds(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (id == null || products.containsKey(id)) {
+                continue;
+            }
+            Product cached = productCache.get(id, Product.class);
+            if (cached != null) {
+                products.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            LOGGER.debug("Buscando {} produtos em lote", misses.size());
+            boolean ownReadOnlyTransaction = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            for (Product product : productRepository.findAllById(misses)) {
+                if (ownReadOnlyTransaction) {
+                    detachForCache(product);
+                    productCache.put(product.getId(), product);
+                }
+                products.put(product.getId(), product);
+            }
+        }
+        return products;
+    }
+
+    // O produto novo não vai para o cache aqui: a instância salva continua na sessão de quem chamou
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
     public Product save(ProductRecordDto productRecordDto) {
-        LOGGER.info("Salvando novo produto: " + productRecordDto.name());
+        LOGGER.info("Salvando novo produto: {}", productRecordDto.name());
         Product product = new Product();
         product.setName(productRecordDto.name());
         product.setDescription(productRecordDto.description());
         product.setPrice(productRecordDto.price());
         product.setImgUrl(productRecordDto.imgUrl());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productSearchService.index(saved);
+        collectionVersion.invalidateAfterCommit();
+        return saved;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true) })
     public void delete(Long id) {
-        LOGGER.info("Excluindo produto com ID: " + id);
+        LOGGER.info("Excluindo produto com ID: {}", id);
         if (!productRepository.existsById(id)) {
             throw new ResourceNotFoundException("Produto não encontrado para o ID: " + id);
         }
+        // O flush antecipa o DELETE: a violação de FK (produto em pedidos) aparece aqui, e não no commit,
+        // depois que o método já retornou
         try {
             productRepository.deleteById(id);
+            productRepository.flush();
         } catch (DataIntegrityViolationException e) {
-            throw new DatabaseException("Não é possível excluir usuário que possui pedidos relacionados.");
+            throw new DatabaseException("Não é possível excluir produto que possui pedidos relacionados.");
         }
+        productSearchService.remove(id);
+        collectionVersion.invalidateAfterCommit();
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true) })
     public Product update(Long id, ProductRecordDto productDto) {
-        LOGGER.info("Atualizando produto com ID: " + id);
-        Product entity = findById(id);
+        LOGGER.info("Atualizando produto com ID: {}", id);
+        Product entity = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado para o ID: " + id));
         updateData(entity, productDto);
-        return productRepository.save(entity);
+        Product saved = productRepository.save(entity);
+        productSearchService.index(saved);
+        collectionVersion.invalidateAfterCommit();
+        return saved;
+    }
+
+    private void detachForCache(Product product) {
+        Hibernate.initialize(product.getCategories());
+        entityManager.detach(product);
     }
 
     private void updateData(Product entity, ProductRecordDto dto) {
@@ -0,0 +1,130 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.repositories.DailySalesRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Mantém o consolidado daily_sales. Inclusões são aplicadas depois do commit, numa transação curta própria:
+// a linha do dia é disputada por todos os pedidos e não deve ficar travada durante a transação do pedido.
+// Se a atualização falhar, o pedido continua válido e o rebuild noturno corrige a diferença.
+@Service
+public class SalesRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SalesRollupService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    // Os IDs viram parâmetros do IN; o SQL Server aceita no máximo 2100 por statement
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private final DailySalesRepository dailySalesRepository;
+    private final TransactionTemplate rollupTransaction;
+    private final TransactionTemplate rebuildTransaction;
+    private final int rebuildDays;
+
+    public SalesRollupService(DailySalesRepository dailySalesRepository, PlatformTransactionManager transactionManager,
+            @Value("${workshop.analytics.rollup-rebuild.days:7}") int rebuildDays) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rollupTransaction = new TransactionTemplate(transactionManager);
+        this.rollupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildDays = rebuildDays;
+    }
+
+    public void recordOrders(Collection<Long> orderIds) {
+        afterCommit(orderIds, ids -> dailySalesRepository.addOrders(ids, 1));
+    }
+
+    public void recordPayments(Collection<Long> orderIds) {
+        afterCommit(orderIds, ids -> dailySalesRepository.addPayments(ids, 1));
+    }
+
+    // Exclusões descontam na própria transação, antes de as linhas de origem sumirem. A linha do dia
+    // já existe (o pedido foi contado), então o MERGE não corre risco de colidir na PK. A receita descontada
+    // é payments.amount, a mesma somada no pagamento.
+    public void removeOrder(Long orderId) {
+        dailySalesRepository.addPayments(List.of(orderId), -1);
+        dailySalesRepository.addOrders(List.of(orderId), -1);
+    }
+
+    public void removePayment(Long orderId) {
+        dailySalesRepository.addPayments(List.of(orderId), -1);
+    }
+
+    // Recalcula [from, to) a partir de orders e payments: DELETE do intervalo e um INSERT ... SELECT agregado,
+    // na mesma transação (pelo template, que vale também para a chamada interna do agendamento)
+    public int rebuild(LocalDate from, LocalDate to) {
+        LOGGER.info("Recalculando consolidado de vendas de {} a {}", from, to);
+        return rebuildTransaction.execute(status -> {
+            dailySalesRepository.deleteBetween(from, to);
+            return dailySalesRepository.insertBetween(from, to);
+        });
+    }
+
+    @Scheduled(cron = "${workshop.analytics.rollup-rebuild.cron:-}")
+    public void rebuildRecent() {
+        LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        int days = rebuild(tomorrow.minusDays(rebuildDays + 1L), tomorrow);
+        LOGGER.info("Consolidado de vendas recalculado: {} dias", days);
+    }
+
+    private void afterCommit(Collection<Long> orderIds, Consumer<Collection<Long>> update) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(orderIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyInChunks(ids, update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyInChunks(ids, update);
+            }
+        });
+    }
+
+    private void applyInChunks(List<Long> ids, Consumer<Collection<Long>> update) {
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+            apply(ids.subList(from, Math.min(ids.size(), from + IN_LIST_CHUNK)), update);
+        }
+    }
+
+    // Dois primeiros pedidos do dia podem colidir no INSERT do MERGE; na repetição o dia já existe
+    private void apply(Collection<Long> orderIds, Consumer<Collection<Long>> update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rollupTransaction.executeWithoutResult(status -> update.accept(orderIds));
+                return;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    LOGGER.warn("Consolidado de vendas não atualizado para {} pedidos após {} tentativas: {}",
+                            orderIds.size(), attempt, e.getMessage());
+                    return;
+                }
+                LOGGER.debug("Conflito ao atualizar consolidado de vendas (tentativa {}): {}", attempt, e.getMessage());
+            } catch (RuntimeException e) {
+                // o commit do pedido já aconteceu: registra e deixa a diferença para o rebuild
+                LOGGER.warn("Consolidado de vendas não atualizado para {} pedidos", orderIds.size(), e);
+                return;
+            }
+        }
+    }
+}
@@ -1,22 +1,25 @@
 package com.lorenzozagallo.jpa.services;
 
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
 import com.lorenzozagallo.jpa.dtos.UserRecordDto;
 import com.lorenzozagallo.jpa.models.User;
 import com.lorenzozagallo.jpa.repositories.UserRepository;
 import com.lorenzozagallo.jpa.services.exceptions.DatabaseException;
 import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
-import jakarta.transaction.Transactional;
+import com.lorenzozagallo.jpa.services.pagination.Cursor;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.logging.Logger;
 
 @Service
 public class UserService {
 
-    private static final Logger LOGGER = Logger.getLogger(UserService.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
 
@@ -24,23 +27,28 @@ public class UserService {
         this.userRepository = userRepository;
     }
 
-    public List<User> findAll() {
-        LOGGER.info("Buscando todos os usuários");
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageRecordDto<User> findAll(String after, Integer limit) {
+        LOGGER.debug("Buscando usuários após o cursor: {}", after);
+        int pageSize = Cursor.limit(limit);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(Cursor.decodeId(after),
+                Cursor.fetchLimit(pageSize));
+        return Cursor.page(rows, pageSize, user -> Cursor.encode(user.getId()));
     }
 
+    @Transactional(readOnly = true)
     public User findById(Long id) {
-        LOGGER.info("Buscando usuário com ID: " + id);
+        LOGGER.debug("Buscando usuário com ID: {}", id);
         return userRepository.findById(id)
                 .orElseThrow(() -> {
-                    LOGGER.warning("Usuário não encontrado para o ID: " + id);
+                    LOGGER.warn("Usuário não encontrado para o ID: {}", id);
                     return new ResourceNotFoundException("Usuário não encontrado para o ID: " + id);
                 });
     }
 
     @Transactional
     public User save(UserRecordDto userRecordDto) {
-        LOGGER.info("Salvando novo usuário: " + userRecordDto.name());
+        LOGGER.info("Salvando novo usuário: {}", userRecordDto.name());
         User user = new User();
         user.setName(userRecordDto.name());
         user.setEmail(userRecordDto.email());
@@ -51,7 +59,7 @@ public class UserService {
 
     @Transactional
     public void delete(Long id) {
-        LOGGER.info("Excluindo usuário com ID: " + id);
+        LOGGER.info("Excluindo usuário com ID: {}", id);
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("Usuário não encontrado para o ID: " + id);
         }
@@ -64,7 +72,7 @@ public class UserService {
 
     @Transactional
     public User update(Long id, UserRecordDto userRecordDto) {
-        LOGGER.info("Atualizando usuário com ID: " + id);
+        LOGGER.info("Atualizando usuário com ID: {}", id);
         User entity = findById(id);
         updateData(entity, userRecordDto);
         return userRepository.save(entity);
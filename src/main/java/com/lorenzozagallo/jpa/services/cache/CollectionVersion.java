@@ -0,0 +1,56 @@
+package com.lorenzozagallo.jpa.services.cache;
+
+import com.lorenzozagallo.jpa.dtos.CollectionVersionRecordDto;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Versão de uma coleção para o ETag das listagens, lida do banco (contagem, soma de version, maior
+// last_modified) e guardada por um TTL curto. Escritas de outras instâncias, migrações e SQL direto aparecem
+// em no máximo um TTL, desde que avancem version/last_modified (ou incluam/excluam linhas); as escritas desta
+// instância descartam a versão guardada no commit e aparecem na leitura seguinte.
+// A versão faz parte da chave do cache de páginas, então o corpo segue o mesmo limite.
+public final class CollectionVersion {
+
+    private final Supplier<CollectionVersionRecordDto> loader;
+    private final long ttlNanos;
+    // Cada escrita local avança a geração; uma versão lida antes do commit fica com a geração velha e não vale
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(CollectionVersionRecordDto version, long generation, long loadedAt) {
+    }
+
+    public CollectionVersion(Supplier<CollectionVersionRecordDto> loader, Duration ttl) {
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public CollectionVersionRecordDto current() {
+        long currentGeneration = generation.get();
+        Snapshot cached = snapshot;
+        if (cached == null || cached.generation() != currentGeneration
+                || System.nanoTime() - cached.loadedAt() >= ttlNanos) {
+            cached = new Snapshot(loader.get(), currentGeneration, System.nanoTime());
+            snapshot = cached;
+        }
+        return cached.version();
+    }
+
+    // Só depois do commit: descartar antes deixaria uma leitura concorrente guardar a versão anterior à escrita
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+}
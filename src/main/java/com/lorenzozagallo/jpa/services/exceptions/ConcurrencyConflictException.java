@@ -0,0 +1,13 @@
+package com.lorenzozagallo.jpa.services.exceptions;
+
+import java.io.Serial;
+
+public class ConcurrencyConflictException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrencyConflictException(String msg) {
+        super(msg);
+    }
+}
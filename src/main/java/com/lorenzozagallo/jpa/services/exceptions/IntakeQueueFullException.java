@@ -0,0 +1,13 @@
+package com.lorenzozagallo.jpa.services.exceptions;
+
+import java.io.Serial;
+
+public class IntakeQueueFullException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public IntakeQueueFullException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,13 @@
+package com.lorenzozagallo.jpa.services.exceptions;
+
+import java.io.Serial;
+
+public class InvalidCursorException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String cursor) {
+        super("Cursor de paginação inválido: " + cursor);
+    }
+}
@@ -0,0 +1,14 @@
+package com.lorenzozagallo.jpa.services.exceptions;
+
+import java.io.Serial;
+
+// Parâmetro de entrada inválido (quantidade, intervalo de datas, ordenação...): erro do cliente, não do banco
+public class InvalidRequestException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRequestException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,107 @@
+package com.lorenzozagallo.jpa.services.pagination;
+
+import com.lorenzozagallo.jpa.dtos.CursorPageRecordDto;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidCursorException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+// Paginação por chave (keyset): o cliente envia ?after=<cursor>&limit=N e recebe o
+// próximo cursor na resposta. Não há COUNT e nenhuma consulta passa de MAX_LIMIT linhas.
+public final class Cursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    // '.' não faz parte do alfabeto Base64 URL-safe, então serve de separador
+    private static final String SEPARATOR = ".";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private Cursor() {
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    // Busca uma linha a mais para saber se existe próxima página sem precisar de COUNT
+    public static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    // Equivalente para consultas @Query; como o retorno é List, o Spring Data não dispara COUNT
+    public static Pageable fetchPage(int pageSize) {
+        return PageRequest.ofSize(pageSize + 1);
+    }
+
+    public static String encode(Object... keys) {
+        StringJoiner joiner = new StringJoiner(SEPARATOR);
+        for (Object key : keys) {
+            joiner.add(ENCODER.encodeToString(String.valueOf(key).getBytes(StandardCharsets.UTF_8)));
+        }
+        return joiner.toString();
+    }
+
+    public static String[] decode(String cursor, int size) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != size) {
+            throw new InvalidCursorException(cursor);
+        }
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new String(DECODER.decode(parts[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+        return parts;
+    }
+
+    // Cursor de chave única (id); ausência de cursor significa primeira página
+    public static Long decodeId(String cursor) {
+        if (isFirstPage(cursor)) {
+            return 0L;
+        }
+        return parseLong(decode(cursor, 1)[0], cursor);
+    }
+
+    public static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+
+    public static long parseLong(String value, String cursor) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public static Instant parseInstant(String value, String cursor) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public static <T> CursorPageRecordDto<T> page(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPageRecordDto<>(rows, null);
+        }
+        List<T> content = rows.subList(0, pageSize);
+        return new CursorPageRecordDto<>(content, cursorOf.apply(content.get(pageSize - 1)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.lorenzozagallo.jpa.services.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Análise de texto em português para o índice de busca: minúsculas, sem acentos, sem stopwords e com um
+// stemming leve de plural ("camisetas" -> "camiseta", "botões" -> "botao", "itens" -> "item").
+// Índice e consulta passam pela mesma análise, então basta ser consistente, não linguisticamente perfeito.
+public final class PortugueseAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final int MIN_STEM_LENGTH = 4;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "ao", "aos",
+            "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos", "num", "numa",
+            "e", "ou", "com", "sem", "para", "pra", "por", "pelo", "pela", "pelos", "pelas",
+            "que", "se", "seu", "sua", "seus", "suas");
+
+    private PortugueseAnalyzer() {
+    }
+
+    // Termos como ficam no índice
+    public static List<String> terms(String text) {
+        List<String> tokens = tokens(text);
+        tokens.replaceAll(PortugueseAnalyzer::stem);
+        return tokens;
+    }
+
+    // Tokens normalizados, ainda sem stemming (usados como prefixo no autocomplete)
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Plural -> singular pelas terminações mais comuns; palavras curtas e números ficam como estão
+    public static String stem(String token) {
+        if (token.length() < MIN_STEM_LENGTH || !token.endsWith("s")) {
+            return token;
+        }
+        if (token.endsWith("oes") || token.endsWith("aes")) {
+            return token.substring(0, token.length() - 3) + "ao";
+        }
+        if (token.endsWith("ais") || token.endsWith("eis") || token.endsWith("ois")) {
+            return token.substring(0, token.length() - 2) + "l";
+        }
+        if (token.endsWith("ns")) {
+            return token.substring(0, token.length() - 2) + "m";
+        }
+        if (token.endsWith("res") || token.endsWith("zes") || token.endsWith("ses")) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("ss") || token.endsWith("us")) {
+            return token;
+        }
+        return token.substring(0, token.length() - 1);
+    }
+}
@@ -0,0 +1,247 @@
+package com.lorenzozagallo.jpa.services.search;
+
+import com.lorenzozagallo.jpa.models.Category;
+import com.lorenzozagallo.jpa.models.Product;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Índice invertido em memória sobre nome e descrição dos produtos. Termos ordenados (TreeMap) para o
+// autocomplete por prefixo; ranking BM25 simplificado, com peso maior para ocorrências no nome.
+// Muitas leituras e poucas escritas: um ReadWriteLock basta.
+public class ProductSearchIndex {
+
+    private static final double NAME_BOOST = 3.0;
+    private static final double SATURATION = 1.2;
+    // Teto de termos expandidos por um prefixo curto ("c"), para a consulta não varrer o dicionário inteiro
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Comparator<Hit> BY_RANK = Comparator.comparingDouble(Hit::score)
+            .thenComparing(hit -> hit.document().id(), Comparator.reverseOrder());
+
+    private final NavigableMap<String, Map<Long, Posting>> postings = new TreeMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // IDs excluídos enquanto o índice é montado por um rebuild: o bloco lido antes da exclusão não pode
+    // trazê-los de volta. Só existe até o fim do rebuild (IDs não são reaproveitados)
+    private Set<Long> tombstones;
+
+    // O que a busca devolve sem ir ao banco; as categorias precisam estar carregadas. A versão é a do @Version
+    // do produto e decide entre duas gravações do mesmo documento
+    public record Document(Long id, Long version, String name, Double price, String imgUrl, Set<Long> categoryIds) {
+
+        public static Document of(Product product) {
+            Set<Long> categoryIds = product.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+            return new Document(product.getId(), product.getVersion(), product.getName(), product.getPrice(),
+                    product.getImgUrl(), categoryIds);
+        }
+
+        boolean olderThan(Document other) {
+            return version != null && other.version() != null && version < other.version();
+        }
+    }
+
+    public record Hit(Document document, double score) {
+    }
+
+    private record Posting(int nameFrequency, int descriptionFrequency) {
+
+        double weight(boolean nameOnly) {
+            double weight = NAME_BOOST * saturate(nameFrequency);
+            return nameOnly ? weight : weight + saturate(descriptionFrequency);
+        }
+
+        private static double saturate(int frequency) {
+            return frequency / (frequency + SATURATION);
+        }
+    }
+
+    private record Entry(Document document, Set<String> terms) {
+    }
+
+    // Índice que guarda as exclusões até endRebuild()
+    public static ProductSearchIndex forRebuild() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.tombstones = new HashSet<>();
+        return index;
+    }
+
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            tombstones = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ignora documentos excluídos durante o rebuild e versões mais antigas que a já indexada
+    public void put(Document document, String description) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        PortugueseAnalyzer.terms(document.name()).forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[0]++);
+        PortugueseAnalyzer.terms(description).forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[1]++);
+        lock.writeLock().lock();
+        try {
+            if (tombstones != null && tombstones.contains(document.id())) {
+                return;
+            }
+            Entry current = entries.get(document.id());
+            if (current != null && document.olderThan(current.document())) {
+                return;
+            }
+            removeLocked(document.id());
+            frequencies.forEach((term, f) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), new Posting(f[0], f[1])));
+            entries.put(document.id(), new Entry(document, frequencies.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            if (tombstones != null) {
+                tombstones.add(id);
+            }
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Todos os termos precisam aparecer (AND) no nome ou na descrição; categoryId opcional
+    public List<Hit> search(String query, Long categoryId, int limit) {
+        Set<String> terms = new LinkedHashSet<>(PortugueseAnalyzer.terms(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                scores = intersect(scores, termScores(term, false));
+            }
+            return top(scores, document -> categoryId == null || document.categoryIds().contains(categoryId), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Autocomplete sobre o nome: as palavras completas casam inteiras e a última, ainda sendo digitada, por prefixo
+    public List<Hit> suggest(String text, int limit) {
+        List<String> tokens = PortugueseAnalyzer.tokens(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                scores = intersect(scores, termScores(PortugueseAnalyzer.stem(token), true));
+            }
+            scores = intersect(scores, prefixScores(tokens.get(tokens.size() - 1)));
+            return top(scores, document -> true, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Posting> docs = postings.get(term);
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private Map<Long, Double> termScores(String term, boolean nameOnly) {
+        Map<Long, Posting> docs = postings.get(term);
+        if (docs == null) {
+            return Map.of();
+        }
+        double idf = idf(docs.size());
+        Map<Long, Double> scores = new HashMap<>();
+        docs.forEach((id, posting) -> {
+            if (!nameOnly || posting.nameFrequency() > 0) {
+                scores.put(id, idf * posting.weight(nameOnly));
+            }
+        });
+        return scores;
+    }
+
+    // Cada produto pontua pelo melhor termo que completa o prefixo; a forma singular do prefixo também vale
+    private Map<Long, Double> prefixScores(String prefix) {
+        Map<Long, Double> scores = new HashMap<>(termScores(PortugueseAnalyzer.stem(prefix), true));
+        int expansions = 0;
+        for (String term : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            termScores(term, true).forEach((id, score) -> scores.merge(id, score, Math::max));
+        }
+        return scores;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (entries.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    // Percorre o menor dos dois mapas
+    private static Map<Long, Double> intersect(Map<Long, Double> accumulated, Map<Long, Double> next) {
+        if (accumulated == null) {
+            return next;
+        }
+        Map<Long, Double> small = accumulated.size() <= next.size() ? accumulated : next;
+        Map<Long, Double> large = small == accumulated ? next : accumulated;
+        Map<Long, Double> result = new HashMap<>();
+        small.forEach((id, score) -> {
+            Double other = large.get(id);
+            if (other != null) {
+                result.put(id, score + other);
+            }
+        });
+        return result;
+    }
+
+    // Top-N com um heap de tamanho limit, sem ordenar todos os candidatos
+    private List<Hit> top(Map<Long, Double> scores, Predicate<Document> filter, int limit) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 1, BY_RANK);
+        scores.forEach((id, score) -> {
+            Document document = entries.get(id).document();
+            if (filter.test(document)) {
+                heap.add(new Hit(document, score));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        });
+        return heap.stream().sorted(BY_RANK.reversed()).toList();
+    }
+}
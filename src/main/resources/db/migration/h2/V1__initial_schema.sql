@@ -0,0 +1,59 @@
+-- Mesmo esquema de sqlserver/V1, com os tipos do H2 (perfis perf e test)
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    password VARCHAR(255),
+    CONSTRAINT pk_users PRIMARY KEY (id)
+);
+
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name VARCHAR(255),
+    CONSTRAINT pk_categories PRIMARY KEY (id)
+);
+
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    price FLOAT(53),
+    img_url VARCHAR(255),
+    CONSTRAINT pk_products PRIMARY KEY (id)
+);
+
+CREATE TABLE product_category (
+    product_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    CONSTRAINT pk_product_category PRIMARY KEY (product_id, category_id),
+    CONSTRAINT fk_product_category_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_product_category_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    moment TIMESTAMP(6) WITH TIME ZONE,
+    order_status VARCHAR(255) CHECK (order_status IN ('WAITING_PAYMENT', 'PAID', 'SHIPPED', 'DELIVERED', 'CANCELED')),
+    client_id BIGINT,
+    CONSTRAINT pk_orders PRIMARY KEY (id),
+    CONSTRAINT fk_orders_client FOREIGN KEY (client_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_items (
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER,
+    price FLOAT(53),
+    CONSTRAINT pk_order_items PRIMARY KEY (order_id, product_id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE payments (
+    order_id BIGINT NOT NULL,
+    moment TIMESTAMP(6),
+    CONSTRAINT pk_payments PRIMARY KEY (order_id),
+    CONSTRAINT fk_payments_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
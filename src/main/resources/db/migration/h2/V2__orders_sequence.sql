@@ -0,0 +1,7 @@
+-- Mesma troca de sqlserver/V2: orders.id sem IDENTITY, vindo da sequence orders_seq. No H2 basta tirar
+-- o IDENTITY da coluna; a sequence começa em MAX(id) + 50 pelo mesmo motivo (otimizador pooled).
+
+ALTER TABLE orders ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE orders_seq START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE orders_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM orders);
@@ -0,0 +1,9 @@
+-- Mesmas colunas de sqlserver/V3: total, quantidade de itens e versão do pedido
+
+ALTER TABLE orders ADD COLUMN total FLOAT(53);
+ALTER TABLE orders ADD COLUMN item_count INTEGER;
+ALTER TABLE orders ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE orders o SET
+    total = COALESCE((SELECT SUM(i.quantity * i.price) FROM order_items i WHERE i.order_id = o.id), 0),
+    item_count = (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.id);
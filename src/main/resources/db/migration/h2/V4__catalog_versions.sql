@@ -0,0 +1,7 @@
+-- Mesmas colunas de sqlserver/V4: versão e última alteração de produtos e categorias
+
+ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products ADD COLUMN last_modified TIMESTAMP(6) WITH TIME ZONE;
+
+ALTER TABLE categories ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE categories ADD COLUMN last_modified TIMESTAMP(6) WITH TIME ZONE;
@@ -0,0 +1,25 @@
+-- Mesma tabela e carga inicial de sqlserver/V5
+
+CREATE TABLE daily_sales (
+    sales_date DATE NOT NULL,
+    order_count BIGINT NOT NULL,
+    payment_count BIGINT NOT NULL,
+    revenue FLOAT(53) NOT NULL,
+    CONSTRAINT pk_daily_sales PRIMARY KEY (sales_date)
+);
+
+INSERT INTO daily_sales (sales_date, order_count, payment_count, revenue)
+SELECT x.sales_date, SUM(x.order_count), SUM(x.payment_count), SUM(x.revenue) FROM (
+    SELECT CAST(o.moment AS DATE) AS sales_date, COUNT(*) AS order_count, 0 AS payment_count,
+        CAST(0 AS FLOAT) AS revenue
+    FROM orders o
+    WHERE o.moment IS NOT NULL
+    GROUP BY CAST(o.moment AS DATE)
+    UNION ALL
+    SELECT CAST(p.moment AS DATE), 0, COUNT(*), COALESCE(SUM(o.total), 0)
+    FROM payments p
+    JOIN orders o ON o.id = p.order_id
+    WHERE p.moment IS NOT NULL
+    GROUP BY CAST(p.moment AS DATE)
+) x
+GROUP BY x.sales_date;
@@ -0,0 +1,16 @@
+-- Mesma conversão de sqlserver/V6: order_status passa a TINYINT com OrderStatus.getValue()
+
+ALTER TABLE orders ADD COLUMN order_status_code TINYINT;
+
+UPDATE orders SET order_status_code = CASE order_status
+    WHEN 'WAITING_PAYMENT' THEN 1
+    WHEN 'PAID' THEN 2
+    WHEN 'SHIPPED' THEN 3
+    WHEN 'DELIVERED' THEN 4
+    WHEN 'CANCELED' THEN 5
+END;
+
+ALTER TABLE orders DROP COLUMN order_status;
+ALTER TABLE orders ALTER COLUMN order_status_code RENAME TO order_status;
+
+ALTER TABLE orders ADD CONSTRAINT ck_orders_status CHECK (order_status BETWEEN 1 AND 5);
@@ -0,0 +1,14 @@
+-- Mesmos índices de sqlserver/V7; o H2 não tem INCLUDE, então as colunas cobertas entram na chave
+
+CREATE INDEX ix_orders_moment ON orders (moment, order_status, total);
+
+CREATE INDEX ix_orders_client_moment ON orders (client_id, moment, id, order_status, total, item_count);
+
+CREATE INDEX ix_orders_status_moment ON orders (order_status, moment);
+
+CREATE INDEX ix_order_items_product ON order_items (product_id, quantity, price);
+
+CREATE INDEX ix_product_category_category ON product_category (category_id, product_id);
+
+CREATE INDEX ix_products_price_id ON products (price, id);
+CREATE INDEX ix_products_name_id ON products (name, id);
@@ -0,0 +1,5 @@
+-- Mesma coluna de sqlserver/V8: valor reconhecido no pagamento
+
+ALTER TABLE payments ADD COLUMN amount FLOAT(53);
+
+UPDATE payments p SET amount = (SELECT o.total FROM orders o WHERE o.id = p.order_id);
@@ -0,0 +1,21 @@
+-- Mesma troca de sqlserver/V9: payments.moment com fuso, como orders.moment. O H2 converte as linhas
+-- existentes pelo fuso da sessão (o da JVM).
+
+ALTER TABLE payments ALTER COLUMN moment SET DATA TYPE TIMESTAMP(6) WITH TIME ZONE;
+
+DELETE FROM daily_sales;
+
+INSERT INTO daily_sales (sales_date, order_count, payment_count, revenue)
+SELECT x.sales_date, SUM(x.order_count), SUM(x.payment_count), SUM(x.revenue) FROM (
+    SELECT CAST(o.moment AT TIME ZONE 'UTC' AS DATE) AS sales_date, COUNT(*) AS order_count, 0 AS payment_count,
+        CAST(0 AS FLOAT) AS revenue
+    FROM orders o
+    WHERE o.moment IS NOT NULL
+    GROUP BY CAST(o.moment AT TIME ZONE 'UTC' AS DATE)
+    UNION ALL
+    SELECT CAST(p.moment AT TIME ZONE 'UTC' AS DATE), 0, COUNT(*), COALESCE(SUM(p.amount), 0)
+    FROM payments p
+    WHERE p.moment IS NOT NULL
+    GROUP BY CAST(p.moment AT TIME ZONE 'UTC' AS DATE)
+) x
+GROUP BY x.sales_date;
@@ -0,0 +1,40 @@
+-- orders.id deixa de ser IDENTITY e passa a vir da sequence orders_seq (allocationSize = 50 no Order): o
+-- Hibernate reserva 50 IDs por ida ao banco e os INSERTs de pedidos vão em lote JDBC.
+-- O SQL Server não remove IDENTITY de uma coluna existente: a tabela é recriada sem IDENTITY e as linhas
+-- copiadas com os mesmos IDs. As FKs que apontam para orders (nomes automáticos nos bancos do ddl-auto)
+-- saem antes e voltam com nome fixo no fim; o CHECK de order_status some com a tabela antiga.
+
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql = @sql + N'ALTER TABLE ' + QUOTENAME(OBJECT_NAME(fk.parent_object_id))
+    + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N'; '
+FROM sys.foreign_keys fk
+WHERE fk.referenced_object_id = OBJECT_ID(N'orders');
+EXEC sp_executesql @sql;
+GO
+
+CREATE TABLE orders_new (
+    id BIGINT NOT NULL,
+    moment DATETIMEOFFSET(6),
+    order_status VARCHAR(255),
+    client_id BIGINT,
+    CONSTRAINT pk_orders_new PRIMARY KEY (id)
+);
+
+INSERT INTO orders_new (id, moment, order_status, client_id)
+SELECT id, moment, order_status, client_id FROM orders;
+
+DROP TABLE orders;
+EXEC sp_rename N'orders_new', N'orders';
+EXEC sp_rename N'pk_orders_new', N'pk_orders', N'OBJECT';
+GO
+
+ALTER TABLE orders ADD CONSTRAINT fk_orders_client FOREIGN KEY (client_id) REFERENCES users (id);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id);
+ALTER TABLE payments ADD CONSTRAINT fk_payments_order FOREIGN KEY (order_id) REFERENCES orders (id);
+
+-- A sequence começa acima do maior ID já gravado. Com o otimizador pooled o Hibernate usa o bloco
+-- (valor - 49) a valor, então o primeiro valor precisa ser MAX(id) + 50
+DECLARE @start BIGINT = (SELECT COALESCE(MAX(id), 0) FROM orders) + 50;
+DECLARE @create NVARCHAR(200) = N'CREATE SEQUENCE orders_seq START WITH ' + CAST(@start AS NVARCHAR(20))
+    + N' INCREMENT BY 50';
+EXEC sp_executesql @create;
@@ -0,0 +1,18 @@
+-- Total e quantidade de itens mantidos no próprio pedido (listagens e histórico sem somar order_items),
+-- e a versão para o controle otimista das inclusões concorrentes de itens.
+ALTER TABLE orders ADD
+    total FLOAT(53) NULL,
+    item_count INT NULL,
+    version BIGINT NOT NULL CONSTRAINT df_orders_version DEFAULT 0;
+GO
+
+-- Pedidos existentes: valores calculados a partir dos itens já gravados
+UPDATE o SET
+    o.total = COALESCE(i.total, 0),
+    o.item_count = COALESCE(i.item_count, 0)
+FROM orders o
+LEFT JOIN (
+    SELECT order_id, SUM(quantity * price) AS total, COUNT(*) AS item_count
+    FROM order_items
+    GROUP BY order_id
+) i ON i.order_id = o.id;
@@ -0,0 +1,9 @@
+-- Versão e data da última alteração de produtos e categorias: @Version do Hibernate e base do ETag e do
+-- Last-Modified dos GETs condicionais. Linhas existentes começam na versão 0, sem data.
+ALTER TABLE products ADD
+    version BIGINT NOT NULL CONSTRAINT df_products_version DEFAULT 0,
+    last_modified DATETIMEOFFSET(6) NULL;
+
+ALTER TABLE categories ADD
+    version BIGINT NOT NULL CONSTRAINT df_categories_version DEFAULT 0,
+    last_modified DATETIMEOFFSET(6) NULL;
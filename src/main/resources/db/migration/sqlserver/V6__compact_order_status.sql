@@ -0,0 +1,30 @@
+-- orders.order_status: de VARCHAR(255) com o nome do enum para TINYINT com OrderStatus.getValue()
+-- (1 byte por linha, e índices que incluem o status ficam menores).
+
+-- O índice antigo do histórico e o CHECK que o Hibernate gerava (nome automático) impedem o DROP COLUMN
+DROP INDEX IF EXISTS ix_orders_client_moment ON orders;
+
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql = @sql + N'ALTER TABLE orders DROP CONSTRAINT ' + QUOTENAME(cc.name) + N'; '
+FROM sys.check_constraints cc
+JOIN sys.columns c ON c.object_id = cc.parent_object_id AND c.column_id = cc.parent_column_id
+WHERE cc.parent_object_id = OBJECT_ID(N'orders') AND c.name = N'order_status';
+EXEC sp_executesql @sql;
+GO
+
+ALTER TABLE orders ADD order_status_code TINYINT NULL;
+GO
+
+UPDATE orders SET order_status_code = CASE order_status
+    WHEN 'WAITING_PAYMENT' THEN 1
+    WHEN 'PAID' THEN 2
+    WHEN 'SHIPPED' THEN 3
+    WHEN 'DELIVERED' THEN 4
+    WHEN 'CANCELED' THEN 5
+END;
+
+ALTER TABLE orders DROP COLUMN order_status;
+EXEC sp_rename N'orders.order_status_code', N'order_status', N'COLUMN';
+GO
+
+ALTER TABLE orders ADD CONSTRAINT ck_orders_status CHECK (order_status BETWEEN 1 AND 5);
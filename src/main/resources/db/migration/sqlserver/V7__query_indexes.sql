@@ -0,0 +1,28 @@
+-- Índices das consultas da aplicação. Cada um é recriado do zero porque bancos vindos do ddl-auto podem
+-- ter versões antigas (dos @Index que ficavam nas entidades) com outras colunas.
+
+-- Agregados de vendas por intervalo de datas (/analytics/by-status lê só o índice)
+DROP INDEX IF EXISTS ix_orders_moment ON orders;
+CREATE INDEX ix_orders_moment ON orders (moment) INCLUDE (order_status, total);
+
+-- Histórico do cliente (/users/{id}/orders): seek em client_id e leitura reversa por (moment, id);
+-- o INCLUDE cobre as colunas do resumo
+CREATE INDEX ix_orders_client_moment ON orders (client_id, moment, id) INCLUDE (order_status, total, item_count);
+
+-- Pedidos por status (fila de pagamento pendente, expedição), mais antigos primeiro
+DROP INDEX IF EXISTS ix_orders_status_moment ON orders;
+CREATE INDEX ix_orders_status_moment ON orders (order_status, moment);
+
+-- A PK de order_items começa por order_id: agregados por produto e a FK de products precisam do inverso
+DROP INDEX IF EXISTS ix_order_items_product ON order_items;
+CREATE INDEX ix_order_items_product ON order_items (product_id) INCLUDE (quantity, price);
+
+-- A PK de product_category começa por product_id: listagem por categoria (/categories/{id}/products)
+DROP INDEX IF EXISTS ix_product_category_category ON product_category;
+CREATE INDEX ix_product_category_category ON product_category (category_id, product_id);
+
+-- Ordenações da listagem por categoria
+DROP INDEX IF EXISTS ix_products_price_id ON products;
+CREATE INDEX ix_products_price_id ON products (price, id);
+DROP INDEX IF EXISTS ix_products_name_id ON products;
+CREATE INDEX ix_products_name_id ON products (name, id);
@@ -0,0 +1,8 @@
+-- payments.amount: valor reconhecido no pagamento (o total do pedido naquele momento). O consolidado
+-- daily_sales soma e desconta por esta coluna, e não pelo total atual do pedido, que pode mudar depois.
+ALTER TABLE payments ADD amount FLOAT(53) NULL;
+GO
+
+UPDATE p SET p.amount = o.total
+FROM payments p
+JOIN orders o ON o.id = p.order_id;
@@ -0,0 +1,30 @@
+-- payments.moment: de DATETIME2, com a hora local da JVM que gravou, para DATETIMEOFFSET em UTC, como
+-- orders.moment. Com os dois em UTC, CAST(... AT TIME ZONE 'UTC' AS DATE) põe pedido e pagamento no mesmo dia.
+-- As linhas existentes são convertidas pelo fuso atual do servidor do banco (a aplicação rodava na mesma
+-- máquina, ver spring.datasource.url); pagamentos gravados em outro horário de verão podem sair 1h deslocados.
+DECLARE @offset INT = DATEPART(TZOFFSET, SYSDATETIMEOFFSET());
+
+ALTER TABLE payments ADD moment_utc DATETIMEOFFSET(6) NULL;
+EXEC sp_executesql N'UPDATE payments SET moment_utc = SWITCHOFFSET(TODATETIMEOFFSET(moment, @offset), ''+00:00'')',
+    N'@offset INT', @offset = @offset;
+ALTER TABLE payments DROP COLUMN moment;
+EXEC sp_rename N'payments.moment_utc', N'moment', N'COLUMN';
+GO
+
+-- O consolidado foi montado com os dias locais dos pagamentos: recalculado inteiro pela agregação do rebuild
+DELETE FROM daily_sales;
+
+INSERT INTO daily_sales (sales_date, order_count, payment_count, revenue)
+SELECT x.sales_date, SUM(x.order_count), SUM(x.payment_count), SUM(x.revenue) FROM (
+    SELECT CAST(o.moment AT TIME ZONE 'UTC' AS DATE) AS sales_date, COUNT(*) AS order_count, 0 AS payment_count,
+        CAST(0 AS FLOAT) AS revenue
+    FROM orders o
+    WHERE o.moment IS NOT NULL
+    GROUP BY CAST(o.moment AT TIME ZONE 'UTC' AS DATE)
+    UNION ALL
+    SELECT CAST(p.moment AT TIME ZONE 'UTC' AS DATE), 0, COUNT(*), COALESCE(SUM(p.amount), 0)
+    FROM payments p
+    WHERE p.moment IS NOT NULL
+    GROUP BY CAST(p.moment AT TIME ZONE 'UTC' AS DATE)
+) x
+GROUP BY x.sales_date;
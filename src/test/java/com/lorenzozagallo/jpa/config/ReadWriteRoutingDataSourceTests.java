@@ -0,0 +1,92 @@
+package com.lorenzozagallo.jpa.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dois H2 em memória fazendo papel de primário e réplica, cada um com uma linha que diz qual banco respondeu
+class ReadWriteRoutingDataSourceTests {
+
+    private static final DataSource PRIMARY = h2("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+    private static final DataSource REPLICA = h2("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+    // IFEXISTS: o banco não existe, então toda conexão falha como numa réplica fora do ar
+    private static final DataSource OFFLINE = h2("jdbc:h2:mem:routing-offline;IFEXISTS=TRUE");
+
+    @BeforeAll
+    static void createMarkers() {
+        for (DataSource dataSource : new DataSource[] { PRIMARY, REPLICA }) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(16))");
+            jdbc.update("DELETE FROM marker");
+            jdbc.update("INSERT INTO marker VALUES (?)", dataSource == PRIMARY ? "primary" : "replica");
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        Routing routing = new Routing(REPLICA);
+        assertEquals("replica", routing.read(true));
+        assertEquals("primary", routing.read(false));
+        assertEquals("primary", routing.jdbc.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaIsDown() {
+        Routing routing = new Routing(OFFLINE);
+        assertEquals("primary", routing.read(true));
+        assertFalse(routing.health.isUp());
+
+        routing.health.check();
+        assertFalse(routing.health.isUp());
+    }
+
+    @Test
+    void healthCheckBringsTheReplicaBack() {
+        Routing routing = new Routing(REPLICA);
+        routing.health.markDown(new IllegalStateException("teste"));
+        assertEquals("primary", routing.read(true));
+
+        routing.health.check();
+        assertTrue(routing.health.isUp());
+        assertEquals("replica", routing.read(true));
+    }
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    // Mesma montagem do ReadWriteRoutingConfig, com transações JDBC no lugar das JPA
+    private static final class Routing {
+
+        private final ReplicaHealthMonitor health;
+        private final JdbcTemplate jdbc;
+        private final DataSourceTransactionManager transactionManager;
+
+        Routing(DataSource replica) {
+            health = new ReplicaHealthMonitor(replica, 1);
+            DataSource dataSource = new LazyConnectionDataSourceProxy(
+                    new ReadWriteRoutingDataSource(PRIMARY, replica, health));
+            jdbc = new JdbcTemplate(dataSource);
+            transactionManager = new DataSourceTransactionManager(dataSource);
+        }
+
+        String read(boolean readOnly) {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(readOnly);
+            return template.execute(status -> jdbc.queryForObject("SELECT name FROM marker", String.class));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.lorenzozagallo.jpa.config;
+
+import com.lorenzozagallo.jpa.dtos.CategoryRecordDto;
+import com.lorenzozagallo.jpa.dtos.DailySalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.ProductRecordDto;
+import com.lorenzozagallo.jpa.services.AnalyticsService;
+import com.lorenzozagallo.jpa.services.CategoryService;
+import com.lorenzozagallo.jpa.services.ProductService;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// Roteamento com a montagem real: JpaTransactionManager, conexão devolvida ao fim de cada transação e
+// open-in-view. Dois H2 com a mesma massa; na réplica o produto 2 tem outro nome, o que mostra de onde veio a leitura.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-jpa-primary;DB_CLOSE_DELAY=-1;TIME ZONE=UTC",
+        "workshop.datasource.replica.jdbc-url=" + ReadWriteRoutingJpaTests.REPLICA_URL,
+        "workshop.datasource.replica.username=sa",
+        "workshop.datasource.replica.password=" })
+@ActiveProfiles("test")
+@Sql(scripts = "/workshop-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ReadWriteRoutingJpaTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-jpa-replica;DB_CLOSE_DELAY=-1;TIME ZONE=UTC";
+    private static final String REPLICA_NAME = "Smart TV (réplica)";
+
+    private static final JdbcTemplate REPLICA = new JdbcTemplate(h2(REPLICA_URL));
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OpenEntityManagerInViewInterceptor openEntityManagerInView;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    // A réplica recebe o esquema pelas mesmas migrações; o Flyway da aplicação só roda no primário
+    @BeforeAll
+    static void createReplica() {
+        DataSource replica = REPLICA.getDataSource();
+        Flyway.configure().dataSource(replica).locations("classpath:db/migration/h2").load().migrate();
+        new ResourceDatabasePopulator(new ClassPathResource("workshop-data.sql")).execute(replica);
+        REPLICA.update("UPDATE products SET name = ? WHERE id = 2", REPLICA_NAME);
+    }
+
+    @Test
+    void readOnlyServiceCallsReadFromTheReplica() {
+        assertInstanceOf(JpaTransactionManager.class, transactionManager);
+        assertEquals(REPLICA_NAME, productService.findById(2L).getName());
+    }
+
+    // O consolidado só existe na réplica: as consultas do painel precisam chegar nela
+    @Test
+    void analyticsQueriesReadFromTheReplica() {
+        LocalDate day = LocalDate.of(2024, 6, 20);
+        REPLICA.update("DELETE FROM daily_sales");
+        REPLICA.update("INSERT INTO daily_sales (sales_date, order_count, payment_count, revenue) VALUES (?, 7, 5, 99.0)",
+                day);
+
+        assertEquals(List.of(new DailySalesRecordDto(day, 7L, 5L, 99.0)),
+                analyticsService.findDaily(day, day.plusDays(1)));
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        productService.save(new ProductRecordDto(null, "Notebook Gamer", "Só no primário", 5000.0, ""));
+
+        assertEquals(1, countProducts(new JdbcTemplate(primaryDataSource), "Notebook Gamer"));
+        assertEquals(0, countProducts(REPLICA, "Notebook Gamer"));
+    }
+
+    // Com open-in-view a sessão dura a requisição inteira. Sem liberar a conexão ao fim de cada transação, a
+    // leitura depois da escrita reaproveitaria a conexão do primário
+    @Test
+    void eachTransactionOfAnOpenInViewRequestIsRoutedOnItsOwn() {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+        openEntityManagerInView.preHandle(request);
+        try {
+            categoryService.save(new CategoryRecordDto(null, "Games"));
+            assertEquals(REPLICA_NAME, productService.findById(2L).getName());
+        } finally {
+            openEntityManagerInView.afterCompletion(request, null);
+        }
+        assertEquals(1, new JdbcTemplate(primaryDataSource)
+                .queryForObject("SELECT COUNT(*) FROM categories WHERE name = 'Games'", Integer.class));
+    }
+
+    private static int countProducts(JdbcTemplate jdbc, String name) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM products WHERE name = ?", Integer.class, name);
+    }
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
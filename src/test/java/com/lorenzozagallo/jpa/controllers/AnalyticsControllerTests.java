@@ -0,0 +1,101 @@
+package com.lorenzozagallo.jpa.controllers;
+
+import com.lorenzozagallo.jpa.services.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Recortes do painel sobre a massa fixa (junho e julho de 2024):
+// pedido 1 (PAID, 2371.0): 2 x produto 1 + 1 x produto 2, pago em 20/06
+// pedido 2 (WAITING_PAYMENT, 1250.0): 1 x produto 3; pedido 3 (WAITING_PAYMENT, 181.0): 2 x produto 1
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = "/workshop-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class AnalyticsControllerTests {
+
+    private static final String RANGE = "?from=2024-06-01&to=2024-08-01";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @BeforeEach
+    void rebuildRollup() {
+        salesRollupService.rebuild(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 8, 1));
+    }
+
+    @Test
+    void dailySeriesReadsTheRollup() throws Exception {
+        mockMvc.perform(get("/workshop/analytics/daily" + RANGE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].date").value("2024-06-20"))
+                .andExpect(jsonPath("$[0].orders").value(1))
+                .andExpect(jsonPath("$[0].payments").value(1))
+                .andExpect(jsonPath("$[0].revenue").value(2371.0))
+                .andExpect(jsonPath("$[2].date").value("2024-07-22"))
+                .andExpect(jsonPath("$[2].payments").value(0));
+    }
+
+    @Test
+    void byStatusGroupsOrdersAndTotals() throws Exception {
+        mockMvc.perform(get("/workshop/analytics/by-status" + RANGE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("WAITING_PAYMENT"))
+                .andExpect(jsonPath("$[0].orders").value(2))
+                .andExpect(jsonPath("$[0].revenue").value(1431.0))
+                .andExpect(jsonPath("$[1].status").value("PAID"))
+                .andExpect(jsonPath("$[1].revenue").value(2371.0));
+    }
+
+    @Test
+    void byProductRanksByRevenue() throws Exception {
+        mockMvc.perform(get("/workshop/analytics/by-product" + RANGE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].productId").value(2))
+                .andExpect(jsonPath("$[0].revenue").value(2190.0))
+                .andExpect(jsonPath("$[2].productId").value(1))
+                .andExpect(jsonPath("$[2].orders").value(2))
+                .andExpect(jsonPath("$[2].quantity").value(4))
+                .andExpect(jsonPath("$[2].revenue").value(362.0));
+    }
+
+    // Produto 2 está em Electronics e Computers: conta nas duas
+    @Test
+    void byCategoryCountsProductsInEachOfTheirCategories() throws Exception {
+        mockMvc.perform(get("/workshop/analytics/by-category" + RANGE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].name").value("Computers"))
+                .andExpect(jsonPath("$[0].orders").value(2))
+                .andExpect(jsonPath("$[0].revenue").value(3440.0))
+                .andExpect(jsonPath("$[1].name").value("Electronics"))
+                .andExpect(jsonPath("$[2].name").value("Books"))
+                .andExpect(jsonPath("$[2].quantity").value(4));
+    }
+
+    @Test
+    void invalidRangeIsBadRequest() throws Exception {
+        mockMvc.perform(get("/workshop/analytics/by-status?from=2024-08-01&to=2024-06-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/workshop/analytics/by-product?from=2020-01-01&to=2024-06-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,36 @@
+package com.lorenzozagallo.jpa.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = "/workshop-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ProductControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Da massa fixa: o produto 1 está nos pedidos 1 e 3. A violação da FK precisa aparecer dentro do service,
+    // e não no commit, para virar 400
+    @Test
+    void deletingProductInAnOrderIsBadRequest() throws Exception {
+        mockMvc.perform(delete("/workshop/products/1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Não é possível excluir produto que possui pedidos relacionados."));
+
+        mockMvc.perform(get("/workshop/products/1"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,104 @@
+package com.lorenzozagallo.jpa.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.lorenzozagallo.jpa.support.SqlStatementMatchers.statementCount;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Orçamento exato de statements por endpoint: um N+1 novo muda a contagem e quebra o build
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = "/workshop-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class SqlStatementCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest(name = "GET {0} -> {1} statements")
+    @CsvSource({
+            "/workshop/orders,              1",
+            "/workshop/orders/1,            2",
+            "/workshop/orders/export,       3",
+            "/workshop/products,            3",
+            "/workshop/products/2,          2",
+            "/workshop/products/search?q=smart, 0",
+            "/workshop/products/suggest?q=mac, 0",
+            "/workshop/categories,          2",
+            "/workshop/categories/1,        1",
+            "/workshop/categories/3/products?sort=price&direction=desc, 1",
+            "/workshop/users,               1",
+            "/workshop/users/1,             1",
+            "/workshop/users/1/orders,      1",
+            "/workshop/payments,            2",
+            "/workshop/payments/1,          1",
+            "/workshop/order-items,         4",
+            "/workshop/order-items/1/2,     2",
+            "/workshop/analytics/daily?from=2024-06-01&to=2024-07-31,       1",
+            "/workshop/analytics/by-status?from=2024-06-01&to=2024-07-31,   1",
+            "/workshop/analytics/by-product?from=2024-06-01&to=2024-07-31,  1",
+            "/workshop/analytics/by-category?from=2024-06-01&to=2024-07-31, 1"
+    })
+    void endpointStaysWithinStatementBudget(String path, int expected) throws Exception {
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(statementCount(expected));
+    }
+
+    // GET condicional: com o ETag atual a resposta é 304. Nas listas basta o agregado de versão (o perfil de teste
+    // zera o TTL dele); nos itens a versão vem da entidade servida, lida do banco porque o cache está desligado
+    @ParameterizedTest(name = "GET {0} com If-None-Match -> 304 em {1} statements")
+    @CsvSource({
+            "/workshop/products,     1",
+            "/workshop/products/2,   2",
+            "/workshop/categories,   1",
+            "/workshop/categories/1, 1"
+    })
+    void unchangedResourceAnswersNotModified(String path, int expected) throws Exception {
+        String eTag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(statementCount(expected));
+    }
+
+    // A versão da coleção muda com a escrita: o ETag antigo deixa de casar e a página vem de novo
+    @Test
+    void writeInvalidatesCollectionETag() throws Exception {
+        String eTag = mockMvc.perform(get("/workshop/categories"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(post("/workshop/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Games\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/workshop/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    // A versão vem do banco: uma escrita que não passou por esta instância (outro nó, SQL direto) também muda o ETag
+    @Test
+    void writeOutsideTheServiceInvalidatesCollectionETag() throws Exception {
+        String eTag = mockMvc.perform(get("/workshop/products"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        jdbcTemplate.update("UPDATE products SET price = price + 1, version = version + 1 WHERE id = 1");
+        mockMvc.perform(get("/workshop/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+}
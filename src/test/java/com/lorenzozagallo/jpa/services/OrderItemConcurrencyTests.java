@@ -0,0 +1,119 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.dtos.OrderItemRecordDto;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.OrderItem;
+import com.lorenzozagallo.jpa.models.pk.OrderItemPK;
+import com.lorenzozagallo.jpa.repositories.OrderItemRepository;
+import com.lorenzozagallo.jpa.repositories.OrderRepository;
+import com.lorenzozagallo.jpa.services.exceptions.InvalidRequestException;
+import com.lorenzozagallo.jpa.services.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Várias threads incluindo itens no mesmo pedido ao mesmo tempo: nenhuma quantidade pode se perder
+// e os totais persistidos precisam bater com os itens no final
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = "/workshop-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class OrderItemConcurrencyTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderItemConcurrencyTests.class);
+
+    private static final int THREADS = 16;
+    private static final int ADDITIONS_PER_THREAD = 25;
+
+    // Da massa fixa: pedido 2 tem só o produto 3 (1 x 1250.0); produtos 1 e 2 ainda não estão nele
+    private static final long ORDER_ID = 2L;
+    private static final double PRICE_PRODUCT_1 = 90.5;
+    private static final double PRICE_PRODUCT_2 = 2190.0;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Test
+    void concurrentAdditionsToTheSameOrderMergeQuantities() throws Exception {
+        long initialVersion = orderRepository.findById(ORDER_ID).orElseThrow().getVersion();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // Metade das threads disputa o produto 1 e metade o produto 2: a primeira inclusão de cada um
+            // colide na PK, as seguintes somam quantidade na mesma linha
+            OrderItemRecordDto item = t % 2 == 0
+                    ? new OrderItemRecordDto(1L, 1, PRICE_PRODUCT_1)
+                    : new OrderItemRecordDto(2L, 1, PRICE_PRODUCT_2);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ADDITIONS_PER_THREAD; i++) {
+                    orderService.addItemToOrder(ORDER_ID, item);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        executor.shutdown();
+
+        int additions = THREADS * ADDITIONS_PER_THREAD;
+        LOGGER.info("{} inclusões concorrentes no mesmo pedido em {} ms ({} inclusões/s)", additions, elapsedMillis,
+                additions * 1000L / Math.max(1, elapsedMillis));
+
+        int perProduct = additions / 2;
+        assertEquals(perProduct, quantityOf(1L));
+        assertEquals(perProduct, quantityOf(2L));
+        assertEquals(1, quantityOf(3L));
+
+        Order order = orderRepository.findById(ORDER_ID).orElseThrow();
+        assertEquals(3, order.getItemCount());
+        assertEquals(perProduct * PRICE_PRODUCT_1 + perProduct * PRICE_PRODUCT_2 + 1250.0, order.getTotal(), 0.001);
+        assertEquals(initialVersion + additions, order.getVersion());
+    }
+
+    // Erros do cliente saem na hora, sem entrar no laço de tentativas nem virar 409
+    @Test
+    void invalidQuantityIsRejectedAsBadRequest() {
+        assertThrows(InvalidRequestException.class,
+                () -> orderService.addItemToOrder(ORDER_ID, new OrderItemRecordDto(1L, 0, PRICE_PRODUCT_1)));
+    }
+
+    @Test
+    void missingOrderOrProductIsNotFound() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> orderService.addItemToOrder(999L, new OrderItemRecordDto(1L, 1, PRICE_PRODUCT_1)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> orderService.addItemToOrder(ORDER_ID, new OrderItemRecordDto(999L, 1, PRICE_PRODUCT_1)));
+    }
+
+    private int quantityOf(long productId) {
+        return orderItemRepository.findById(new OrderItemPK(ORDER_ID, productId))
+                .map(OrderItem::getQuantity)
+                .orElse(0);
+    }
+}
@@ -0,0 +1,139 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.controllers.PaymentController;
+import com.lorenzozagallo.jpa.controllers.exceptions.ControllerExceptionHandler;
+import com.lorenzozagallo.jpa.dtos.PaymentIntakeRecordDto;
+import com.lorenzozagallo.jpa.dtos.PaymentRecordDto;
+import com.lorenzozagallo.jpa.repositories.OrderRepository;
+import com.lorenzozagallo.jpa.repositories.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Cada teste monta o próprio PaymentIntakeService (fila e workers sob controle do teste) sobre os beans reais
+// de persistência; os workers só sobem depois que os pagamentos já estão na fila, para o lote ser previsível.
+// Da massa fixa: o pedido 1 já tem pagamento, os pedidos 2 e 3 não.
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = "/workshop-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class PaymentIntakeServiceTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void fullQueueAnswersServiceUnavailable() throws Exception {
+        PaymentController controller = new PaymentController();
+        controller.paymentIntakeService = intakeService(1, salesRollupService);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new ControllerExceptionHandler())
+                .build();
+
+        mockMvc.perform(post("/workshop/payments/intake").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderId\":2}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION));
+        mockMvc.perform(post("/workshop/payments/intake").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orderId\":3}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void statusMovesFromQueuedToRecordedOrRejected() throws Exception {
+        PaymentIntakeService service = intakeService(10, salesRollupService);
+        PaymentIntakeRecordDto unpaid = service.submit(new PaymentRecordDto(2L, null));
+        PaymentIntakeRecordDto missing = service.submit(new PaymentRecordDto(999L, null));
+        PaymentIntakeRecordDto alreadyPaid = service.submit(new PaymentRecordDto(1L, null));
+        assertEquals(PaymentIntakeRecordDto.QUEUED, service.findStatus(unpaid.trackingId()).status());
+
+        service.start();
+        try {
+            assertEquals(PaymentIntakeRecordDto.RECORDED, awaitOutcome(service, unpaid).status());
+            assertEquals(PaymentIntakeRecordDto.REJECTED, awaitOutcome(service, missing).status());
+            assertEquals(PaymentIntakeRecordDto.REJECTED, awaitOutcome(service, alreadyPaid).status());
+        } finally {
+            service.stop();
+        }
+        assertTrue(paymentRepository.existsById(2L));
+        assertFalse(paymentRepository.existsById(999L));
+    }
+
+    // O lote inteiro falha por causa do pedido 3; a regravação um a um salva o 2 e rejeita só o 3
+    @Test
+    void failedBatchFallsBackToOnePaymentAtATime() throws Exception {
+        SalesRollupService rollup = mock(SalesRollupService.class);
+        doThrow(new DataIntegrityViolationException("pagamento inválido"))
+                .when(rollup).recordPayments(argThat(orderIds -> orderIds.contains(3L)));
+        PaymentIntakeService service = intakeService(10, rollup);
+        PaymentIntakeRecordDto good = service.submit(new PaymentRecordDto(2L, null));
+        PaymentIntakeRecordDto bad = service.submit(new PaymentRecordDto(3L, null));
+
+        service.start();
+        try {
+            assertEquals(PaymentIntakeRecordDto.RECORDED, awaitOutcome(service, good).status());
+            PaymentIntakeRecordDto rejected = awaitOutcome(service, bad);
+            assertEquals(PaymentIntakeRecordDto.REJECTED, rejected.status());
+            assertTrue(rejected.message().contains("pagamento inválido"));
+        } finally {
+            service.stop();
+        }
+        assertTrue(paymentRepository.existsById(2L));
+        assertFalse(paymentRepository.existsById(3L));
+    }
+
+    private PaymentIntakeService intakeService(int queueCapacity, SalesRollupService rollup) {
+        return new PaymentIntakeService(orderRepository, paymentRepository, entityManager, rollup,
+                transactionManager, new SimpleMeterRegistry(), queueCapacity, 1, 10, 50, Duration.ofMinutes(1));
+    }
+
+    private static PaymentIntakeRecordDto awaitOutcome(PaymentIntakeService service, PaymentIntakeRecordDto queued)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            PaymentIntakeRecordDto status = service.findStatus(queued.trackingId());
+            if (!PaymentIntakeRecordDto.QUEUED.equals(status.status())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Pagamento " + queued.trackingId() + " continuou na fila por mais de " + TIMEOUT);
+    }
+}
@@ -0,0 +1,101 @@
+package com.lorenzozagallo.jpa.services;
+
+import com.lorenzozagallo.jpa.dtos.DailySalesRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderItemRecordDto;
+import com.lorenzozagallo.jpa.dtos.OrderRecordDto;
+import com.lorenzozagallo.jpa.dtos.PaymentRecordDto;
+import com.lorenzozagallo.jpa.models.Order;
+import com.lorenzozagallo.jpa.models.enums.OrderStatus;
+import com.lorenzozagallo.jpa.repositories.DailySalesRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// O consolidado mantido incrementalmente precisa bater com o recalculado a partir das tabelas de origem
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql(scripts = "/workshop-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class SalesRollupServiceTests {
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    // Da massa fixa: pedidos em 20/06, 21/07 e 22/07; só o pedido 1 (2371.0) está pago, em 20/06
+    @Test
+    void rebuildAggregatesOrdersAndPaymentsPerDay() {
+        LocalDate from = LocalDate.of(2024, 6, 1);
+        LocalDate to = LocalDate.of(2024, 8, 1);
+
+        assertEquals(3, salesRollupService.rebuild(from, to));
+
+        assertEquals(List.of(
+                new DailySalesRecordDto(LocalDate.of(2024, 6, 20), 1L, 1L, 2371.0),
+                new DailySalesRecordDto(LocalDate.of(2024, 7, 21), 1L, 0L, 0.0),
+                new DailySalesRecordDto(LocalDate.of(2024, 7, 22), 1L, 0L, 0.0)),
+                dailySalesRepository.findBetween(from, to));
+    }
+
+    // Item incluído depois do pagamento muda o total do pedido, mas não a receita já reconhecida: excluir o
+    // pagamento desconta exatamente o que foi somado, sem deixar resíduo no dia
+    @Test
+    void incrementalUpdatesMatchRebuildWhenTotalChangesAfterPayment() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate tomorrow = today.plusDays(1);
+        Order order = orderService.save(new OrderRecordDto(null, null, OrderStatus.WAITING_PAYMENT, 1L,
+                List.of(new OrderItemRecordDto(3L, 1, 1250.0))));
+        paymentService.createPayment(new PaymentRecordDto(order.getId(), new Date()));
+        orderService.addItemToOrder(order.getId(), new OrderItemRecordDto(1L, 2, 90.5));
+
+        assertEquals(List.of(new DailySalesRecordDto(today, 1L, 1L, 1250.0)),
+                dailySalesRepository.findBetween(today, tomorrow));
+        assertRebuildMatches(today, tomorrow);
+
+        paymentService.delete(order.getId());
+
+        assertEquals(List.of(new DailySalesRecordDto(today, 1L, 0L, 0.0)),
+                dailySalesRepository.findBetween(today, tomorrow));
+        assertRebuildMatches(today, tomorrow);
+    }
+
+    // Pedido e pagamento contam no dia UTC, qualquer que seja o fuso da JVM (os testes rodam em America/Sao_Paulo,
+    // ver surefire no pom): pago às 22:30 de 22/07 em São Paulo (01:30 UTC de 23/07), o pedido 3 (15:21 UTC de
+    // 22/07) entra em 22/07 e a receita em 23/07
+    @Test
+    void paymentNearMidnightCountsOnItsUtcDay() {
+        LocalDate from = LocalDate.of(2024, 7, 22);
+        LocalDate to = LocalDate.of(2024, 7, 24);
+        salesRollupService.rebuild(from, to);
+        paymentService.createPayment(new PaymentRecordDto(3L, Date.from(Instant.parse("2024-07-23T01:30:00Z"))));
+
+        assertEquals(List.of(
+                new DailySalesRecordDto(LocalDate.of(2024, 7, 22), 1L, 0L, 0.0),
+                new DailySalesRecordDto(LocalDate.of(2024, 7, 23), 0L, 1L, 181.0)),
+                dailySalesRepository.findBetween(from, to));
+        assertRebuildMatches(from, to);
+    }
+
+    private void assertRebuildMatches(LocalDate from, LocalDate to) {
+        List<DailySalesRecordDto> incremental = dailySalesRepository.findBetween(from, to);
+        salesRollupService.rebuild(from, to);
+        assertEquals(dailySalesRepository.findBetween(from, to), incremental);
+    }
+}
@@ -0,0 +1,90 @@
+package com.lorenzozagallo.jpa.services.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Índice puro, sem Spring: análise em português, ranking, filtro por categoria e autocomplete
+class ProductSearchIndexTests {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        put(1L, "Camiseta Básica", "Algodão, várias cores", 1L);
+        put(2L, "Camisa Social", "Tecido leve para camisetas e camisas", 1L);
+        put(3L, "Botões de Pressão", "Kit com botões", 2L);
+        put(4L, "Câmera Digital", "Lentes intercambiáveis", 3L);
+    }
+
+    @Test
+    void matchesPluralAndAccentInsensitive() {
+        assertEquals(List.of(1L, 2L), ids(index.search("CAMISETAS", null, 10)));
+        assertEquals(List.of(3L), ids(index.search("botao", null, 10)));
+    }
+
+    @Test
+    void ranksNameAboveDescriptionAndFiltersCategory() {
+        assertEquals(1L, ids(index.search("camiseta", null, 10)).get(0));
+        assertEquals(List.of(), ids(index.search("camiseta", 2L, 10)));
+    }
+
+    @Test
+    void suggestsByPrefixOfTheLastWord() {
+        assertEquals(List.of(1L, 2L, 4L), sorted(ids(index.suggest("cam", 10))));
+        assertEquals(List.of(2L), ids(index.suggest("camisa so", 10)));
+    }
+
+    @Test
+    void removeAndReplaceKeepPostingsConsistent() {
+        index.remove(4L);
+        put(1L, "Regata", "Algodão", 1L);
+        assertTrue(index.suggest("cam", 10).stream().allMatch(hit -> hit.document().id() == 2L));
+        assertEquals(List.of(1L), ids(index.search("regatas", null, 10)));
+        assertEquals(3, index.size());
+    }
+
+    // Um bloco do rebuild lido antes de uma alteração local chega depois dela: não pode desfazê-la
+    @Test
+    void olderVersionDoesNotReplaceNewerDocument() {
+        put(index, 5L, 2L, "Mochila Nova", "", 1L);
+        put(index, 5L, 1L, "Mochila Antiga", "", 1L);
+        assertEquals(List.of(5L), ids(index.search("nova", null, 10)));
+        assertEquals(List.of(), ids(index.search("antiga", null, 10)));
+    }
+
+    @Test
+    void rebuildKeepsDeletedProductsOutUntilItEnds() {
+        ProductSearchIndex fresh = ProductSearchIndex.forRebuild();
+        fresh.remove(4L);
+        put(fresh, 4L, 1L, "Câmera Digital", "", 3L);
+        assertEquals(0, fresh.size());
+
+        fresh.endRebuild();
+        put(fresh, 6L, 1L, "Câmera Instantânea", "", 3L);
+        assertEquals(List.of(6L), ids(fresh.search("camera", null, 10)));
+    }
+
+    private void put(Long id, String name, String description, Long categoryId) {
+        put(index, id, 0L, name, description, categoryId);
+    }
+
+    private static void put(ProductSearchIndex target, Long id, Long version, String name, String description,
+            Long categoryId) {
+        target.put(new ProductSearchIndex.Document(id, version, name, 10.0, null, Set.of(categoryId)), description);
+    }
+
+    private static List<Long> ids(List<ProductSearchIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.document().id()).toList();
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+}
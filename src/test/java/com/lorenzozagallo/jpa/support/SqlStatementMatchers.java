@@ -0,0 +1,18 @@
+package com.lorenzozagallo.jpa.support;
+
+import com.lorenzozagallo.jpa.config.SqlStatementBudgetFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Asserções sobre a quantidade de statements SQL que uma requisição MockMvc executou
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {
+    }
+
+    public static ResultMatcher statementCount(int expected) {
+        return result -> assertEquals(expected, result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT),
+                "statements SQL em " + result.getRequest().getRequestURI());
+    }
+}
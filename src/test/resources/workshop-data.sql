@@ -0,0 +1,42 @@
+-- Massa fixa dos testes de integração; cada classe de teste recarrega do zero
+DELETE FROM daily_sales;
+DELETE FROM payments;
+DELETE FROM order_items;
+DELETE FROM orders;
+DELETE FROM product_category;
+DELETE FROM products;
+DELETE FROM categories;
+DELETE FROM users;
+
+INSERT INTO users (id, name, email, phone, password) VALUES (1, 'Maria Brown', 'maria@gmail.com', '988888888', '123456');
+INSERT INTO users (id, name, email, phone, password) VALUES (2, 'Alex Green', 'alex@gmail.com', '977777777', '123456');
+
+INSERT INTO categories (id, name) VALUES (1, 'Electronics');
+INSERT INTO categories (id, name) VALUES (2, 'Books');
+INSERT INTO categories (id, name) VALUES (3, 'Computers');
+
+INSERT INTO products (id, name, description, price, img_url) VALUES (1, 'The Lord of the Rings', 'Lorem ipsum dolor sit amet.', 90.5, '');
+INSERT INTO products (id, name, description, price, img_url) VALUES (2, 'Smart TV', 'Nulla eu imperdiet purus.', 2190.0, '');
+INSERT INTO products (id, name, description, price, img_url) VALUES (3, 'Macbook Pro', 'Nam eleifend maximus tortor.', 1250.0, '');
+
+INSERT INTO product_category (product_id, category_id) VALUES (1, 2);
+INSERT INTO product_category (product_id, category_id) VALUES (2, 1);
+INSERT INTO product_category (product_id, category_id) VALUES (2, 3);
+INSERT INTO product_category (product_id, category_id) VALUES (3, 3);
+
+INSERT INTO orders (id, moment, order_status, client_id, total, item_count) VALUES (1, '2024-06-20 19:53:07+00', 2, 1, 2371.0, 2);
+INSERT INTO orders (id, moment, order_status, client_id, total, item_count) VALUES (2, '2024-07-21 03:42:10+00', 1, 2, 1250.0, 1);
+INSERT INTO orders (id, moment, order_status, client_id, total, item_count) VALUES (3, '2024-07-22 15:21:22+00', 1, 1, 181.0, 1);
+
+INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (1, 1, 2, 90.5);
+INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (1, 2, 1, 2190.0);
+INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (2, 3, 1, 1250.0);
+INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (3, 1, 2, 90.5);
+
+INSERT INTO payments (order_id, moment, amount) VALUES (1, '2024-06-20 21:53:07+00', 2371.0);
+
+-- IDs gerados pelos testes começam depois da massa fixa
+ALTER TABLE users ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE categories ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE products ALTER COLUMN id RESTART WITH 100;
+ALTER SEQUENCE orders_seq RESTART WITH 1000;